@@ -0,0 +1,125 @@
+package com.zaxxer.q2o;
+
+import org.sansorm.DataSources;
+import org.sansorm.testutils.DummyResultSet;
+import org.sansorm.testutils.DummyResultSetMetaData;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity, in-memory result set and H2 setup shared by the benchmarks.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class BenchmarkFixtures {
+
+   static final String TABLE = "BENCH_ENTITY";
+   static final String SELECT = "SELECT id, name, counter, amount, active, created FROM " + TABLE;
+
+   @Table(name = TABLE)
+   public static class BenchEntity {
+      @Id
+      int id;
+      @Column(name = "name")
+      String name;
+      @Column(name = "counter")
+      long counter;
+      @Column(name = "amount")
+      BigDecimal amount;
+      @Column(name = "active")
+      Boolean active;
+      @Column(name = "created")
+      Timestamp created;
+   }
+
+   private static final String[] COLUMN_NAMES = {"id", "name", "counter", "amount", "active", "created"};
+   private static final String[] COLUMN_TYPE_NAMES = {"INTEGER", "VARCHAR", "BIGINT", "DECIMAL", "BOOLEAN", "TIMESTAMP"};
+
+   private BenchmarkFixtures() {
+   }
+
+   /**
+    * Result set of rows identical rows without any driver involved. Positioned on the first row, as expected by {@link ResultSetToObjectProcessor#process(Class)}.
+    */
+   static DummyResultSet resultSet(final int rows) {
+      final Object[] row = {1, "name", 2L, new BigDecimal("3.14"), Boolean.TRUE, new Timestamp(0)};
+      final ResultSetMetaData metaData = new DummyResultSetMetaData() {
+         @Override
+         public int getColumnCount() {
+            return COLUMN_NAMES.length;
+         }
+
+         @Override
+         public String getColumnName(final int column) {
+            return COLUMN_NAMES[column - 1];
+         }
+
+         @Override
+         public String getColumnLabel(final int column) {
+            return COLUMN_NAMES[column - 1];
+         }
+
+         @Override
+         public String getTableName(final int column) {
+            return TABLE;
+         }
+
+         @Override
+         public String getColumnTypeName(final int column) {
+            return COLUMN_TYPE_NAMES[column - 1];
+         }
+      };
+      return new DummyResultSet() {
+         private int remaining = rows - 1;
+
+         @Override
+         public boolean next() {
+            return remaining-- > 0;
+         }
+
+         @Override
+         public ResultSetMetaData getMetaData() {
+            return metaData;
+         }
+
+         @Override
+         public Object getObject(final int columnIndex) {
+            return row[columnIndex - 1];
+         }
+      };
+   }
+
+   static List<BenchEntity> entities(final int firstId, final int count) {
+      final List<BenchEntity> entities = new ArrayList<>(count);
+      for (int i = firstId; i < firstId + count; i++) {
+         final BenchEntity entity = new BenchEntity();
+         entity.id = i;
+         entity.name = "name" + i;
+         entity.counter = i;
+         entity.amount = BigDecimal.valueOf(i, 2);
+         entity.active = i % 2 == 0;
+         entity.created = new Timestamp(i);
+         entities.add(entity);
+      }
+      return entities;
+   }
+
+   static void initializeH2() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("DROP TABLE IF EXISTS " + TABLE);
+      Q2Sql.executeUpdate("CREATE TABLE " + TABLE + " (id INTEGER NOT NULL PRIMARY KEY, name VARCHAR(128), counter BIGINT, amount DECIMAL(12,2), active BOOLEAN, created TIMESTAMP)");
+   }
+
+   static void deinitializeH2() {
+      Q2Sql.executeUpdate("DROP TABLE " + TABLE);
+      q2o.deinitialize();
+   }
+}
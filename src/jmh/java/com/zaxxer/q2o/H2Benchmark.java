@@ -0,0 +1,77 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.BenchmarkFixtures.BenchEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts and queries against in-memory H2.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class H2Benchmark {
+
+   private static final int ROWS = 1000;
+   private static final int BATCH = 100;
+
+   private int nextId;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+      BenchmarkFixtures.initializeH2();
+      Q2ObjList.insertBatched(BenchmarkFixtures.entities(0, ROWS));
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      BenchmarkFixtures.deinitializeH2();
+   }
+
+   /**
+    * Rows inserted by the last iteration are removed to keep the table size stable.
+    */
+   @Setup(Level.Iteration)
+   public void resetInserted() {
+      Q2Sql.executeUpdate("DELETE FROM " + BenchmarkFixtures.TABLE + " WHERE id >= ?", ROWS);
+      nextId = ROWS;
+   }
+
+   @Benchmark
+   public BenchEntity byId() {
+      return Q2Obj.byId(BenchEntity.class, ++nextId % ROWS);
+   }
+
+   @Benchmark
+   public List<BenchEntity> fromClause() {
+      return Q2ObjList.fromClause(BenchEntity.class, "id < ?", BATCH);
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(BATCH)
+   public void insertBatched() {
+      Q2ObjList.insertBatched(BenchmarkFixtures.entities(nextId, BATCH));
+      nextId += BATCH;
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(BATCH)
+   public void insertMultiRow() {
+      q2o.setMultiRowInsertChunkSize(BATCH);
+      try {
+         Q2ObjList.insertBatched(BenchmarkFixtures.entities(nextId, BATCH));
+      }
+      finally {
+         q2o.setMultiRowInsertChunkSize(0);
+      }
+      nextId += BATCH;
+   }
+}
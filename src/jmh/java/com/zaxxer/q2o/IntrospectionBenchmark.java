@@ -0,0 +1,67 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.BenchmarkFixtures.BenchEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Introspection cold start and the value conversions of {@link DatabaseValueToFieldType}.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntrospectionBenchmark {
+
+   private final DatabaseValueToFieldType databaseValueToFieldType = new DatabaseValueToFieldType();
+   private Introspected introspected;
+   private AttributeInfo counter;
+   private AttributeInfo amount;
+   private AttributeInfo active;
+
+   @Setup
+   public void setUp() {
+      introspected = Introspected.getInstance(BenchEntity.class);
+      counter = introspected.getFieldColumnInfo("counter");
+      amount = introspected.getFieldColumnInfo("amount");
+      active = introspected.getFieldColumnInfo("active");
+   }
+
+   @Benchmark
+   public Introspected introspectCold() {
+      Introspected.descriptorMap.remove(BenchEntity.class);
+      return Introspected.getInstance(BenchEntity.class);
+   }
+
+   @Benchmark
+   public Introspected introspectCached() {
+      return Introspected.getInstance(BenchEntity.class);
+   }
+
+   @Benchmark
+   public Object convertIntegerToLong() {
+      return databaseValueToFieldType.adaptValueToFieldType(counter, 42, "INTEGER", introspected);
+   }
+
+   @Benchmark
+   public Object convertDoubleToBigDecimal() {
+      return databaseValueToFieldType.adaptValueToFieldType(amount, 3.14d, "DOUBLE", introspected);
+   }
+
+   @Benchmark
+   public Object convertBigDecimalUnchanged() {
+      return databaseValueToFieldType.adaptValueToFieldType(amount, BigDecimal.ONE, "DECIMAL", introspected);
+   }
+
+   @Benchmark
+   public Object convertIntegerToBoolean() {
+      return databaseValueToFieldType.adaptValueToFieldType(active, 1, "INTEGER", introspected);
+   }
+}
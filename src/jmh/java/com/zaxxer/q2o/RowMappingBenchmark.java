@@ -0,0 +1,42 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.BenchmarkFixtures.BenchEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps rows of an in-memory result set, so driver cost is excluded.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowMappingBenchmark {
+
+   @Param({"1", "1000"})
+   int rows;
+
+   @Benchmark
+   public List<BenchEntity> mapRows() throws SQLException {
+      return new ResultSetToObjectProcessor<BenchEntity>(BenchmarkFixtures.resultSet(rows), Collections.emptySet(), BenchmarkFixtures.SELECT)
+         .process(BenchEntity.class);
+   }
+
+   /**
+    * Without SQL there is no cached {@link RowMappingPlan}.
+    */
+   @Benchmark
+   public List<BenchEntity> mapRowsUncachedPlan() throws SQLException {
+      return new ResultSetToObjectProcessor<BenchEntity>(BenchmarkFixtures.resultSet(rows), Collections.emptySet(), null)
+         .process(BenchEntity.class);
+   }
+}
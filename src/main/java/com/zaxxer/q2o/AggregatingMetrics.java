@@ -0,0 +1,149 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link Q2oMetrics} summing up count, total and maximum time per operation, phase and entity class, and rows per operation and entity class. Can be registered as MBean, or its maps be polled by a metrics library, e. g. with Micrometer's FunctionCounter and Gauge.
+ * <pre>
+ * AggregatingMetrics metrics = new AggregatingMetrics();
+ * metrics.registerMBean("com.zaxxer.q2o:type=Metrics");
+ * q2o.setMetrics(metrics);
+ * </pre>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class AggregatingMetrics implements Q2oMetrics, AggregatingMetricsMXBean {
+
+   private final ConcurrentHashMap<Key, Timer> timers = new ConcurrentHashMap<>();
+   private final ConcurrentHashMap<Key, LongAdder> rows = new ConcurrentHashMap<>();
+   private final Function<Key, Timer> newTimer = key -> new Timer();
+   private final Function<Key, LongAdder> newAdder = key -> new LongAdder();
+
+   @Override
+   public void recordTime(final Phase phase, @Nullable final Class<?> entityClass, final String operation, final long nanos) {
+      final Timer timer = timers.computeIfAbsent(new Key(operation, phase, entityClass), newTimer);
+      timer.count.increment();
+      timer.total.add(nanos);
+      timer.max.accumulate(nanos);
+   }
+
+   @Override
+   public void recordRows(final Class<?> entityClass, final String operation, final long rows) {
+      this.rows.computeIfAbsent(new Key(operation, null, entityClass), newAdder).add(rows);
+   }
+
+   @Override
+   public Map<String, Long> getCounts() {
+      return snapshot(timers, timer -> timer.count.sum());
+   }
+
+   @Override
+   public Map<String, Long> getTotalNanos() {
+      return snapshot(timers, timer -> timer.total.sum());
+   }
+
+   @Override
+   public Map<String, Long> getMaxNanos() {
+      return snapshot(timers, timer -> timer.max.get());
+   }
+
+   @Override
+   public Map<String, Long> getRows() {
+      return snapshot(rows, LongAdder::sum);
+   }
+
+   @Override
+   public void reset() {
+      timers.clear();
+      rows.clear();
+   }
+
+   /**
+    * Registers this with the platform MBean server.
+    *
+    * @param objectName E. g. "com.zaxxer.q2o:type=Metrics".
+    */
+   public void registerMBean(final String objectName) {
+      try {
+         ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(objectName));
+      }
+      catch (JMException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   public void unregisterMBean(final String objectName) {
+      try {
+         ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(objectName));
+      }
+      catch (JMException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   private static <V> Map<String, Long> snapshot(final Map<Key, V> values, final ToLongFunction<V> value) {
+      final Map<String, Long> snapshot = new TreeMap<>();
+      values.forEach((key, v) -> snapshot.put(key.toString(), value.applyAsLong(v)));
+      return snapshot;
+   }
+
+   private static final class Timer {
+      final LongAdder count = new LongAdder();
+      final LongAdder total = new LongAdder();
+      final LongAccumulator max = new LongAccumulator(Math::max, 0);
+   }
+
+   private static final class Key {
+      final String operation;
+      @Nullable
+      final Phase phase;
+      @Nullable
+      final Class<?> entityClass;
+
+      Key(final String operation, @Nullable final Phase phase, @Nullable final Class<?> entityClass) {
+         this.operation = operation;
+         this.phase = phase;
+         this.entityClass = entityClass;
+      }
+
+      @Override
+      public boolean equals(final Object o) {
+         if (!(o instanceof Key)) {
+            return false;
+         }
+         final Key key = (Key) o;
+         return operation.equals(key.operation) && phase == key.phase && entityClass == key.entityClass;
+      }
+
+      @Override
+      public int hashCode() {
+         int result = operation.hashCode();
+         result = 31 * result + (phase != null ? phase.hashCode() : 0);
+         return 31 * result + (entityClass != null ? entityClass.hashCode() : 0);
+      }
+
+      @Override
+      public String toString() {
+         final StringBuilder s = new StringBuilder(operation);
+         if (phase != null) {
+            s.append(' ').append(phase);
+         }
+         if (entityClass != null) {
+            s.append(' ').append(entityClass.getName());
+         }
+         return s.toString();
+      }
+   }
+}
@@ -0,0 +1,22 @@
+package com.zaxxer.q2o;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link AggregatingMetrics}. Keys are "operation phase entityClass" for timings and "operation entityClass" for rows, e. g. "byId EXECUTE com.example.Customer".
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public interface AggregatingMetricsMXBean {
+
+   Map<String, Long> getCounts();
+
+   Map<String, Long> getTotalNanos();
+
+   Map<String, Long> getMaxNanos();
+
+   Map<String, Long> getRows();
+
+   void reset();
+}
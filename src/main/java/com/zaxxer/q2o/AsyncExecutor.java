@@ -0,0 +1,108 @@
+package com.zaxxer.q2o;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The executor {@link Q2ObjAsync} runs its operations on. By default a fixed pool of system property "com.zaxxer.q2o.asyncMaxConcurrency" (default 10, HikariCP's default pool size) daemon threads, created on first use.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class AsyncExecutor {
+
+   static final int DEFAULT_MAX_CONCURRENCY = Integer.getInteger("com.zaxxer.q2o.asyncMaxConcurrency", 10);
+   private static final Logger logger = LoggerFactory.getLogger(AsyncExecutor.class);
+   private static volatile Executor executor;
+   /** Created by q2o, so shut down by it. */
+   private static ExecutorService ownedExecutor;
+
+   private AsyncExecutor() {
+   }
+
+   static Executor get() {
+      final Executor e = executor;
+      return e != null ? e : createDefault();
+   }
+
+   private static synchronized Executor createDefault() {
+      if (executor == null) {
+         configure(DEFAULT_MAX_CONCURRENCY, false);
+      }
+      return executor;
+   }
+
+   /**
+    * @param virtualThreads Falls back to platform threads if not supported by the JVM.
+    */
+   static synchronized void configure(final int maxConcurrency, final boolean virtualThreads) {
+      if (maxConcurrency < 1) {
+         throw new IllegalArgumentException("maxConcurrency must be greater than 0");
+      }
+      shutdown();
+      ExecutorService virtual = null;
+      if (virtualThreads) {
+         try {
+            virtual = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+         }
+         catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads are not supported by this JVM, using platform threads");
+         }
+      }
+      if (virtual != null) {
+         // Virtual threads are not pooled. The semaphore bounds the number of connections in use.
+         final ExecutorService virtualExecutor = virtual;
+         final Semaphore permits = new Semaphore(maxConcurrency);
+         ownedExecutor = virtualExecutor;
+         executor = task -> virtualExecutor.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+               task.run();
+            }
+            finally {
+               permits.release();
+            }
+         });
+      }
+      else {
+         final ExecutorService pool = Executors.newFixedThreadPool(maxConcurrency, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable runnable) {
+               final Thread thread = new Thread(runnable, "q2o-async-" + count.getAndIncrement());
+               thread.setDaemon(true);
+               return thread;
+            }
+         });
+         ownedExecutor = pool;
+         executor = pool;
+      }
+   }
+
+   /**
+    * @param executor Not shut down by q2o.
+    */
+   static synchronized void set(final Executor executor) {
+      shutdown();
+      AsyncExecutor.executor = executor;
+   }
+
+   /**
+    * Shuts down the executor if created by q2o. Running operations are completed.
+    */
+   static synchronized void reset() {
+      shutdown();
+   }
+
+   private static void shutdown() {
+      if (ownedExecutor != null) {
+         ownedExecutor.shutdown();
+         ownedExecutor = null;
+      }
+      executor = null;
+   }
+}
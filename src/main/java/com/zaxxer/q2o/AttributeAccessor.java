@@ -0,0 +1,263 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads and writes the value of an attribute through accessors bound once when the entity is introspected. Replaces {@link Field#get(Object)}, {@link Field#set(Object, Object)} and {@link Method#invoke(Object, Object...)} on the per row and per column paths.
+ * <p>
+ * Public getters and setters of classes visible to q2o's class loader are spun into lambdas by {@link LambdaMetafactory}. Fields and all other methods are accessed through {@link MethodHandle}s.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class AttributeAccessor {
+
+   private static final Logger logger = LoggerFactory.getLogger(AttributeAccessor.class);
+   private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+   private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+   private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+   interface Getter {
+      Object get(Object target) throws Throwable;
+   }
+
+   interface Setter {
+      void set(Object target, Object value) throws Throwable;
+   }
+
+   interface IntSetter {
+      void set(Object target, int value) throws Throwable;
+   }
+
+   interface LongSetter {
+      void set(Object target, long value) throws Throwable;
+   }
+
+   interface DoubleSetter {
+      void set(Object target, double value) throws Throwable;
+   }
+
+   private final Getter getter;
+   private final Setter setter;
+   /**
+    * The setter as unreflected, without boxing adaptions. null with read only properties.
+    */
+   @Nullable
+   private final MethodHandle setHandle;
+   /**
+    * Boxed attribute type
+    */
+   private final Class<?> valueType;
+   private final Class<?> type;
+   private final boolean isPrimitive;
+
+   private AttributeAccessor(final Getter getter, final Setter setter, @Nullable final MethodHandle setHandle, final Class<?> type) {
+      this.getter = getter;
+      this.setter = setter;
+      this.setHandle = setHandle;
+      this.type = type;
+      this.isPrimitive = type.isPrimitive();
+      this.valueType = MethodType.methodType(type).wrap().returnType();
+   }
+
+   /**
+    * @param field Must already be accessible.
+    * @return null if the field can not be accessed by method handles. The caller has to stick to reflection then.
+    */
+   @Nullable
+   static AttributeAccessor forField(final Field field) {
+      try {
+         final MethodHandle get = LOOKUP.unreflectGetter(field).asType(GETTER_TYPE);
+         final MethodHandle setHandle = LOOKUP.unreflectSetter(field);
+         final MethodHandle set = setHandle.asType(SETTER_TYPE);
+         return new AttributeAccessor(
+            target -> (Object) get.invokeExact(target),
+            (target, value) -> { set.invokeExact(target, value); },
+            setHandle,
+            field.getType());
+      }
+      catch (IllegalAccessException e) {
+         logger.debug("Falling back to reflection for {}", field, e);
+         return null;
+      }
+   }
+
+   /**
+    * @param attribute The index of the field in {@link EntityAccessor#attributeNames()}.
+    */
+   static AttributeAccessor forGenerated(final EntityAccessor entityAccessor, final int attribute, final Class<?> type) {
+      return new AttributeAccessor(
+         target -> entityAccessor.get(target, attribute),
+         (target, value) -> entityAccessor.set(target, attribute, value),
+         null,
+         type);
+   }
+
+   /**
+    * @param writeMethod null with read only properties.
+    * @return null if the methods can not be accessed by method handles. The caller has to stick to reflection then.
+    */
+   @Nullable
+   static AttributeAccessor forProperty(final Method readMethod, @Nullable final Method writeMethod) {
+      try {
+         return new AttributeAccessor(
+            getterFor(readMethod),
+            writeMethod != null ? setterFor(writeMethod) : null,
+            writeMethod != null ? LOOKUP.unreflect(writeMethod) : null,
+            readMethod.getReturnType());
+      }
+      catch (IllegalAccessException e) {
+         logger.debug("Falling back to reflection for {}", readMethod, e);
+         return null;
+      }
+   }
+
+   private static Getter getterFor(final Method readMethod) throws IllegalAccessException {
+      final MethodHandle handle = LOOKUP.unreflect(readMethod);
+      if (isLinkable(readMethod)) {
+         try {
+            final CallSite site = LambdaMetafactory.metafactory(
+               LOOKUP,
+               "get",
+               MethodType.methodType(Getter.class),
+               GETTER_TYPE,
+               handle,
+               handle.type().wrap());
+            return (Getter) site.getTarget().invoke();
+         }
+         catch (Throwable e) {
+            logger.debug("LambdaMetafactory failed for {}", readMethod, e);
+         }
+      }
+      final MethodHandle get = handle.asType(GETTER_TYPE);
+      return target -> (Object) get.invokeExact(target);
+   }
+
+   private static Setter setterFor(final Method writeMethod) throws IllegalAccessException {
+      final MethodHandle handle = LOOKUP.unreflect(writeMethod);
+      if (isLinkable(writeMethod)) {
+         try {
+            final CallSite site = LambdaMetafactory.metafactory(
+               LOOKUP,
+               "set",
+               MethodType.methodType(Setter.class),
+               SETTER_TYPE,
+               handle,
+               handle.type().wrap().changeReturnType(void.class));
+            return (Setter) site.getTarget().invoke();
+         }
+         catch (Throwable e) {
+            logger.debug("LambdaMetafactory failed for {}", writeMethod, e);
+         }
+      }
+      final MethodHandle set = handle.asType(SETTER_TYPE);
+      return (target, value) -> { set.invokeExact(target, value); };
+   }
+
+   /**
+    * The class spun by {@link LambdaMetafactory} links against the declaring class from within q2o. So it must be public and resolvable by q2o's class loader.
+    */
+   private static boolean isLinkable(final Method method) {
+      final Class<?> declaringClass = method.getDeclaringClass();
+      if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers())) {
+         return false;
+      }
+      try {
+         return Class.forName(declaringClass.getName(), false, AttributeAccessor.class.getClassLoader()) == declaringClass;
+      }
+      catch (ClassNotFoundException | LinkageError e) {
+         return false;
+      }
+   }
+
+   /**
+    * @return false if the value would be rejected by a method handle, e. g. null for a primitive or a value needing a widening conversion. Reflection has to decide then, to preserve its conversion rules and its exceptions.
+    */
+   boolean accepts(final Object value) {
+      return value == null ? !isPrimitive : valueType.isInstance(value);
+   }
+
+   Object get(final Object target) throws Throwable {
+      return getter.get(target);
+   }
+
+   /**
+    * @return false if there is no setter (read only property).
+    */
+   boolean hasSetter() {
+      return setter != null;
+   }
+
+   /**
+    * Check {@link #accepts(Object)} and {@link #hasSetter()} before.
+    */
+   void set(final Object target, final Object value) throws Throwable {
+      setter.set(target, value);
+   }
+
+   /**
+    * @return A setter taking the value unboxed. null if the attribute is not of type int or is read only.
+    */
+   @Nullable
+   IntSetter intSetter() {
+      if (!isSettable(int.class)) {
+         return null;
+      }
+      if (setHandle == null) {
+         // Generated accessor
+         final Setter setter = this.setter;
+         return (target, value) -> setter.set(target, value);
+      }
+      final MethodHandle set = setHandle.asType(MethodType.methodType(void.class, Object.class, int.class));
+      return (target, value) -> { set.invokeExact(target, value); };
+   }
+
+   /**
+    * @see #intSetter()
+    */
+   @Nullable
+   LongSetter longSetter() {
+      if (!isSettable(long.class)) {
+         return null;
+      }
+      if (setHandle == null) {
+         // Generated accessor
+         final Setter setter = this.setter;
+         return (target, value) -> setter.set(target, value);
+      }
+      final MethodHandle set = setHandle.asType(MethodType.methodType(void.class, Object.class, long.class));
+      return (target, value) -> { set.invokeExact(target, value); };
+   }
+
+   /**
+    * @see #intSetter()
+    */
+   @Nullable
+   DoubleSetter doubleSetter() {
+      if (!isSettable(double.class)) {
+         return null;
+      }
+      if (setHandle == null) {
+         // Generated accessor
+         final Setter setter = this.setter;
+         return (target, value) -> setter.set(target, value);
+      }
+      final MethodHandle set = setHandle.asType(MethodType.methodType(void.class, Object.class, double.class));
+      return (target, value) -> { set.invokeExact(target, value); };
+   }
+
+   private boolean isSettable(final Class<?> primitiveType) {
+      if (setHandle == null) {
+         return setter != null && type == primitiveType;
+      }
+      return setHandle.type().parameterType(1) == primitiveType;
+   }
+}
@@ -2,6 +2,7 @@ package com.zaxxer.q2o;
 
 import com.zaxxer.q2o.converters.*;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.persistence.*;
 import java.lang.reflect.Field;
@@ -607,6 +608,15 @@ abstract class AttributeInfo {
 
    abstract void setValue(final Object target, final Object value) throws IllegalAccessException;
 
+   /**
+    * @return The accessor to write the attribute's value as is. null if {@link #setValue(Object, Object)} has to be called, e. g. with join columns or attributes only accessible by reflection.
+    */
+   @Nullable
+   AttributeAccessor getPlainAccessor()
+   {
+      return null;
+   }
+
    boolean isTransient()
    {
       return isTransient;
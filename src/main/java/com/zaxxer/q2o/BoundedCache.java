@@ -0,0 +1,221 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded cache for generated SQL and everything derived from it, and with expiring entries for the {@link EntityCache}. Replaces the former synchronized LinkedHashMaps, which serialized all threads on every query, even while the SQL was built.
+ * <p>
+ * Reads are lock-free. Eviction is approximate LRU: the access time of an entry is the number of entries added to the cache so far, not the wall clock time, and it is not updated if unchanged. So a hit writes no shared state except the hit counter. Exceeding the capacity lets one thread evict the least recently used entries plus some slack, while the others proceed.
+ * </p><p>
+ * The capacity of the SQL caches, created by {@link #create(String)}, is given by system property "com.zaxxer.q2o.sqlCacheSize", then "com.zaxxer.sansorm.statementCacheSize", default 500, and can be changed with {@link q2o#setSqlCacheSize(int)}.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class BoundedCache<K, V> {
+
+   static final int DEFAULT_CAPACITY = Integer.getInteger("com.zaxxer.q2o.sqlCacheSize", Integer.getInteger("com.zaxxer.sansorm.statementCacheSize", 500));
+   private static final List<BoundedCache<?, ?>> caches = new CopyOnWriteArrayList<>();
+
+   private final String name;
+   private final ConcurrentHashMap<K, Node<V>> map = new ConcurrentHashMap<>();
+   private final AtomicLong clock = new AtomicLong();
+   private final AtomicBoolean evicting = new AtomicBoolean();
+   private final LongAdder hits = new LongAdder();
+   private final LongAdder misses = new LongAdder();
+   private final LongAdder evictions = new LongAdder();
+   private volatile int capacity;
+   /**
+    * false if the capacity is not subject to {@link #setCapacity(int)}.
+    */
+   private final boolean isSqlCache;
+   /**
+    * 0 if entries do not expire.
+    */
+   private final long ttlNanos;
+
+   private BoundedCache(final String name, final int capacity, final boolean isSqlCache, final long ttlNanos) {
+      this.name = name;
+      this.capacity = capacity;
+      this.isSqlCache = isSqlCache;
+      this.ttlNanos = ttlNanos;
+   }
+
+   /**
+    * @param name To identify the cache in {@link q2o#getCacheStatistics()}.
+    */
+   static <K, V> BoundedCache<K, V> create(final String name) {
+      final BoundedCache<K, V> cache = new BoundedCache<>(name, DEFAULT_CAPACITY, true, 0);
+      caches.add(cache);
+      return cache;
+   }
+
+   /**
+    * Creates a cache of its own capacity whose entries expire.
+    *
+    * @param ttlMillis 0 if entries do not expire.
+    */
+   static <K, V> BoundedCache<K, V> create(final String name, final int capacity, final long ttlMillis) {
+      final BoundedCache<K, V> cache = new BoundedCache<>(name, capacity, false, TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+      caches.add(cache);
+      return cache;
+   }
+
+   /**
+    * Sets the capacity of all caches created by {@link #create(String)}.
+    */
+   static void setCapacity(final int capacity) {
+      for (final BoundedCache<?, ?> cache : caches) {
+         if (cache.isSqlCache) {
+            cache.capacity = capacity;
+            cache.evictIfFull();
+         }
+      }
+   }
+
+   static List<CacheStatistics> statistics() {
+      final List<CacheStatistics> statistics = new ArrayList<>(caches.size());
+      for (final BoundedCache<?, ?> cache : caches) {
+         statistics.add(new CacheStatistics(cache.name, cache.map.size(), cache.capacity, cache.hits.sum(), cache.misses.sum(), cache.evictions.sum()));
+      }
+      return statistics;
+   }
+
+   @Nullable
+   V get(final K key) {
+      final Node<V> node = map.get(key);
+      if (node == null || node.isExpired()) {
+         if (node != null) {
+            map.remove(key, node);
+         }
+         misses.increment();
+         return null;
+      }
+      hits.increment();
+      final long now = clock.get();
+      if (node.accessed != now) {
+         node.accessed = now;
+      }
+      return node.value;
+   }
+
+   void put(final K key, final V value) {
+      if (capacity <= 0) {
+         return;
+      }
+      map.put(key, newNode(value));
+      evictIfFull();
+   }
+
+   /**
+    * Unlike {@link ConcurrentHashMap#computeIfAbsent(Object, Function)} does not lock while computing the value. So concurrent callers with the same key may compute it more than once, but all of them get the value cached first.
+    */
+   V computeIfAbsent(final K key, final Function<? super K, ? extends V> function) {
+      final V value = get(key);
+      if (value != null) {
+         return value;
+      }
+      final V computed = function.apply(key);
+      if (capacity <= 0) {
+         return computed;
+      }
+      final Node<V> previous = map.putIfAbsent(key, newNode(computed));
+      if (previous != null) {
+         return previous.value;
+      }
+      evictIfFull();
+      return computed;
+   }
+
+   void remove(final K key) {
+      map.remove(key);
+   }
+
+   void clear() {
+      map.clear();
+   }
+
+   /**
+    * Removes the cache from {@link q2o#getCacheStatistics()}.
+    */
+   void dispose() {
+      caches.remove(this);
+      map.clear();
+   }
+
+   private Node<V> newNode(final V value) {
+      return new Node<>(value, clock.incrementAndGet(), ttlNanos == 0 ? 0 : System.nanoTime() + ttlNanos);
+   }
+
+   int size() {
+      return map.size();
+   }
+
+   private void evictIfFull() {
+      if (map.size() <= capacity || !evicting.compareAndSet(false, true)) {
+         return;
+      }
+      try {
+         // Evict some more than necessary to not sort the entries again with the next insert.
+         final int toEvict = map.size() - capacity + capacity / 10;
+         // Access times change concurrently, so sort a snapshot of them.
+         final List<Candidate<K, V>> candidates = new ArrayList<>(map.size());
+         for (final Map.Entry<K, Node<V>> entry : map.entrySet()) {
+            candidates.add(new Candidate<>(entry.getKey(), entry.getValue()));
+         }
+         candidates.sort((c1, c2) -> Long.compare(c1.accessed, c2.accessed));
+         for (int i = 0; i < toEvict && i < candidates.size(); i++) {
+            final Candidate<K, V> candidate = candidates.get(i);
+            if (map.remove(candidate.key, candidate.node)) {
+               evictions.increment();
+            }
+         }
+      }
+      finally {
+         evicting.set(false);
+      }
+   }
+
+   private static final class Node<V> {
+      private final V value;
+      private volatile long accessed;
+      /**
+       * System.nanoTime() of expiry or 0.
+       */
+      private final long expires;
+
+      Node(final V value, final long accessed, final long expires) {
+         this.value = value;
+         this.accessed = accessed;
+         this.expires = expires;
+      }
+
+      boolean isExpired() {
+         return expires != 0 && System.nanoTime() - expires > 0;
+      }
+   }
+
+   private static final class Candidate<K, V> {
+      private final K key;
+      private final Node<V> node;
+      private final long accessed;
+
+      Candidate(final K key, final Node<V> node) {
+         this.key = key;
+         this.node = node;
+         this.accessed = node.accessed;
+      }
+   }
+}
@@ -0,0 +1,52 @@
+package com.zaxxer.q2o;
+
+/**
+ * Statistics of {@link Q2ObjList#insertParallel(Iterable, int, int)}.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public final class BulkLoadResult {
+
+   private final long rows;
+   private final long millis;
+   private final int threads;
+
+   BulkLoadResult(final long rows, final long millis, final int threads) {
+      this.rows = rows;
+      this.millis = millis;
+      this.threads = threads;
+   }
+
+   /**
+    * @return Number of inserted rows.
+    */
+   public long getRows() {
+      return rows;
+   }
+
+   /**
+    * @return Wall clock time of the whole load.
+    */
+   public long getMillis() {
+      return millis;
+   }
+
+   public int getThreads() {
+      return threads;
+   }
+
+   public double getRowsPerSecond() {
+      return millis > 0 ? rows * 1000d / millis : rows;
+   }
+
+   @Override
+   public String toString() {
+      return "BulkLoadResult{" +
+         "rows=" + rows +
+         ", millis=" + millis +
+         ", threads=" + threads +
+         ", rowsPerSecond=" + (long) getRowsPerSecond() +
+         '}';
+   }
+}
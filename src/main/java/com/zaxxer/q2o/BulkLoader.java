@@ -0,0 +1,155 @@
+package com.zaxxer.q2o;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Inserts entities with several threads, each on its own connection. The calling thread reads the entities and hands them over in chunks to the workers, which insert them with {@link OrmWriter#insertListBatched(Connection, Iterable)} and commit every commitInterval rows.
+ * <p>
+ * If a worker fails, the load is stopped and the exception is rethrown. Rows already committed stay in the database.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class BulkLoader<T> {
+
+   private static final Logger logger = LoggerFactory.getLogger(BulkLoader.class);
+   private static final int MAX_CHUNK_SIZE = 1000;
+
+   private final DataSource dataSource;
+   private final int threads;
+   private final int commitInterval;
+   private final int chunkSize;
+   private final BlockingQueue<List<T>> queue;
+   private final List<T> endOfInput = new ArrayList<>();
+   private final AtomicReference<Throwable> failure = new AtomicReference<>();
+   private final AtomicLong rows = new AtomicLong();
+
+   BulkLoader(final DataSource dataSource, final int threads, final int commitInterval) {
+      if (threads < 1 || commitInterval < 1) {
+         throw new IllegalArgumentException("threads and commitInterval must be greater than 0");
+      }
+      this.dataSource = dataSource;
+      this.threads = threads;
+      this.commitInterval = commitInterval;
+      this.chunkSize = Math.min(commitInterval, MAX_CHUNK_SIZE);
+      this.queue = new ArrayBlockingQueue<>(threads * 2);
+   }
+
+   BulkLoadResult load(final Iterator<T> entities) {
+      final long start = System.currentTimeMillis();
+      final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+         private int count;
+
+         @Override
+         public synchronized Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "q2o-bulk-loader-" + count++);
+            thread.setDaemon(true);
+            return thread;
+         }
+      });
+      try {
+         for (int i = 0; i < threads; i++) {
+            executor.execute(this::work);
+         }
+         List<T> chunk = new ArrayList<>(chunkSize);
+         while (entities.hasNext() && failure.get() == null) {
+            chunk.add(entities.next());
+            if (chunk.size() == chunkSize) {
+               handOver(chunk);
+               chunk = new ArrayList<>(chunkSize);
+            }
+         }
+         if (!chunk.isEmpty()) {
+            handOver(chunk);
+         }
+         for (int i = 0; i < threads; i++) {
+            handOver(endOfInput);
+         }
+         executor.shutdown();
+         executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         failure.compareAndSet(null, e);
+      }
+      finally {
+         executor.shutdownNow();
+      }
+
+      if (failure.get() != null) {
+         throw new RuntimeException("Bulk load failed after " + rows.get() + " committed rows", failure.get());
+      }
+      final BulkLoadResult result = new BulkLoadResult(rows.get(), System.currentTimeMillis() - start, threads);
+      logger.info("{}", result);
+      return result;
+   }
+
+   private void handOver(final List<T> chunk) throws InterruptedException {
+      while (failure.get() == null) {
+         if (queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+            return;
+         }
+      }
+   }
+
+   private void work() {
+      try (final Connection connection = dataSource.getConnection()) {
+         final boolean autoCommit = connection.getAutoCommit();
+         connection.setAutoCommit(false);
+         try {
+            long workerRows = 0;
+            int uncommitted = 0;
+            final long start = System.currentTimeMillis();
+            while (failure.get() == null) {
+               final List<T> chunk = queue.poll(100, TimeUnit.MILLISECONDS);
+               if (chunk == null) {
+                  continue;
+               }
+               if (chunk == endOfInput) {
+                  break;
+               }
+               OrmWriter.insertListBatched(connection, chunk);
+               uncommitted += chunk.size();
+               if (uncommitted >= commitInterval) {
+                  connection.commit();
+                  rows.addAndGet(uncommitted);
+                  workerRows += uncommitted;
+                  uncommitted = 0;
+               }
+            }
+            if (failure.get() == null) {
+               connection.commit();
+               rows.addAndGet(uncommitted);
+               workerRows += uncommitted;
+            }
+            else {
+               connection.rollback();
+            }
+            logger.debug("{} rows in {} ms", workerRows, System.currentTimeMillis() - start);
+         }
+         catch (SQLException | InterruptedException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+         }
+         finally {
+            connection.setAutoCommit(autoCommit);
+         }
+      }
+      catch (Throwable e) {
+         logger.error("", e);
+         failure.compareAndSet(null, e);
+      }
+   }
+}
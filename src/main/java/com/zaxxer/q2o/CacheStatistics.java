@@ -0,0 +1,64 @@
+package com.zaxxer.q2o;
+
+/**
+ * Snapshot of the counters of one of q2o's internal caches.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ * @see q2o#getCacheStatistics()
+ */
+public final class CacheStatistics {
+
+   private final String name;
+   private final int size;
+   private final int capacity;
+   private final long hits;
+   private final long misses;
+   private final long evictions;
+
+   CacheStatistics(final String name, final int size, final int capacity, final long hits, final long misses, final long evictions) {
+      this.name = name;
+      this.size = size;
+      this.capacity = capacity;
+      this.hits = hits;
+      this.misses = misses;
+      this.evictions = evictions;
+   }
+
+   public String getName() {
+      return name;
+   }
+
+   public int getSize() {
+      return size;
+   }
+
+   public int getCapacity() {
+      return capacity;
+   }
+
+   public long getHits() {
+      return hits;
+   }
+
+   public long getMisses() {
+      return misses;
+   }
+
+   public long getEvictions() {
+      return evictions;
+   }
+
+   /**
+    * @return 0 if the cache was not accessed yet.
+    */
+   public double getHitRate() {
+      final long requests = hits + misses;
+      return requests == 0 ? 0 : (double) hits / requests;
+   }
+
+   @Override
+   public String toString() {
+      return name + "{size=" + size + ", capacity=" + capacity + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "}";
+   }
+}
@@ -31,17 +31,31 @@ class ConnectionProxy implements InvocationHandler
 {
    private final ArrayList<Statement> statements;
    private final Connection connection;
+   private final StatementCache statementCache;
 
    ConnectionProxy(Connection connection)
    {
       this.connection = connection;
       this.statements = new ArrayList<>();
+      this.statementCache = StatementCache.create();
    }
 
    @Override
    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
    {
+      if (statementCache != null && args != null && args[0] == StatementCache.class) {
+         if ("isWrapperFor".equals(method.getName())) {
+            return true;
+         }
+         if ("unwrap".equals(method.getName())) {
+            return statementCache;
+         }
+      }
+
       if ("close".equals(method.getName())) {
+         if (statementCache != null) {
+            statementCache.close();
+         }
          try {
             for (Statement stmt : statements) {
                stmt.close();
@@ -0,0 +1,183 @@
+package com.zaxxer.q2o;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.Iterator;
+
+/**
+ * Inserts entities with PostgreSQL's COPY ... FROM STDIN in text format, which avoids the per row statement overhead of batched inserts. With other databases, or if the PostgreSQL driver is not on the class path, it falls back to {@link OrmWriter#insertListBatched(Connection, Iterable)}.
+ * <p>
+ * Generated ids are not read back.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class CopyInserter {
+
+   private static final Logger logger = LoggerFactory.getLogger(CopyInserter.class);
+   private static final Class<?> PG_CONNECTION_CLASS = pgConnectionClass();
+   /**
+    * Rows are sent to the server in chunks of about this many characters.
+    */
+   private static final int BUFFER_SIZE = 64 * 1024;
+   private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+   private CopyInserter() {
+   }
+
+   static <T> void insert(final Connection connection, final Iterable<T> iterable) throws SQLException
+   {
+      if (!isPostgreSql(connection)) {
+         OrmWriter.insertListBatched(connection, iterable);
+         return;
+      }
+
+      final Iterator<T> iterableIterator = iterable.iterator();
+      if (!iterableIterator.hasNext()) {
+         return;
+      }
+      final Class<?> clazz = iterableIterator.next().getClass();
+      final Introspected introspected = Introspected.getInstance(clazz);
+      if (introspected.hasSelfJoinColumn()) {
+         throw new RuntimeException("COPY is not supported for objects with self-referencing columns");
+      }
+      final AttributeInfo[] insertableFcInfos = introspected.getInsertableFcInfos();
+      try {
+         PgCopy.copyIn(connection, createSqlForCopy(introspected, insertableFcInfos), iterable, insertableFcInfos);
+      }
+      finally {
+         EntityCache.invalidate(clazz);
+      }
+   }
+
+   static boolean isPostgreSql(final Connection connection) throws SQLException
+   {
+      return PG_CONNECTION_CLASS != null && connection.isWrapperFor(PG_CONNECTION_CLASS);
+   }
+
+   static String createSqlForCopy(final Introspected introspected, final AttributeInfo[] fcInfos)
+   {
+      final StringBuilder sqlSB = new StringBuilder("COPY ").append(introspected.getDelimitedTableName()).append(" (");
+      for (final AttributeInfo fcInfo : fcInfos) {
+         sqlSB.append(fcInfo.getDelimitedColumnName()).append(',');
+      }
+      sqlSB.setCharAt(sqlSB.length() - 1, ')');
+      return sqlSB.append(" FROM STDIN").toString();
+   }
+
+   /**
+    * Appends a line of COPY's text format: Tab separated values, \N for null.
+    */
+   static <T> void appendRow(final StringBuilder sb, final T item, final AttributeInfo[] fcInfos) throws SQLException
+   {
+      for (final AttributeInfo fcInfo : fcInfos) {
+         appendValue(sb, FieldValueToDatabaseType.getValue(item, fcInfo));
+         sb.append('\t');
+      }
+      sb.setCharAt(sb.length() - 1, '\n');
+   }
+
+   private static void appendValue(final StringBuilder sb, Object value) throws SQLException
+   {
+      if (value == null) {
+         sb.append("\\N");
+         return;
+      }
+      if (value instanceof Blob) {
+         value = ((Blob) value).getBytes(1, (int) ((Blob) value).length());
+      }
+      if (value instanceof byte[]) {
+         // bytea hex format. The backslash has to be escaped in COPY's text format.
+         sb.append("\\\\x");
+         for (final byte b : (byte[]) value) {
+            sb.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+         }
+         return;
+      }
+      final String string;
+      if (value instanceof BigDecimal) {
+         string = ((BigDecimal) value).toPlainString();
+      }
+      else if (value instanceof java.util.Date && !(value instanceof Timestamp || value instanceof java.sql.Date || value instanceof Time)) {
+         string = new Timestamp(((java.util.Date) value).getTime()).toString();
+      }
+      else if (value instanceof Enum) {
+         string = ((Enum<?>) value).name();
+      }
+      else {
+         string = value.toString();
+      }
+      for (int i = 0; i < string.length(); i++) {
+         final char c = string.charAt(i);
+         switch (c) {
+         case '\\':
+            sb.append("\\\\");
+            break;
+         case '\t':
+            sb.append("\\t");
+            break;
+         case '\n':
+            sb.append("\\n");
+            break;
+         case '\r':
+            sb.append("\\r");
+            break;
+         default:
+            sb.append(c);
+         }
+      }
+   }
+
+   private static Class<?> pgConnectionClass()
+   {
+      try {
+         return Class.forName("org.postgresql.PGConnection", false, CopyInserter.class.getClassLoader());
+      }
+      catch (ClassNotFoundException | LinkageError e) {
+         logger.debug("PostgreSQL driver not found. COPY not available.");
+         return null;
+      }
+   }
+
+   /**
+    * Separated to not load PostgreSQL driver classes if the driver is not present.
+    */
+   private static final class PgCopy {
+
+      static <T> void copyIn(final Connection connection, final String sql, final Iterable<T> iterable, final AttributeInfo[] fcInfos) throws SQLException
+      {
+         logger.debug("{}", sql);
+         final CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+         try {
+            final StringBuilder sb = new StringBuilder(BUFFER_SIZE + 1024);
+            for (final T item : iterable) {
+               appendRow(sb, item, fcInfos);
+               if (sb.length() >= BUFFER_SIZE) {
+                  write(copyIn, sb);
+               }
+            }
+            write(copyIn, sb);
+            logger.debug("{} rows copied", copyIn.endCopy());
+         }
+         finally {
+            if (copyIn.isActive()) {
+               copyIn.cancelCopy();
+            }
+         }
+      }
+
+      private static void write(final CopyIn copyIn, final StringBuilder sb) throws SQLException
+      {
+         final byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+         copyIn.writeToCopy(bytes, 0, bytes.length);
+         sb.setLength(0);
+      }
+   }
+}
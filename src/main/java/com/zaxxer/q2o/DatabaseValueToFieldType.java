@@ -16,6 +16,8 @@ import java.math.BigInteger;
 import java.sql.*;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -26,18 +28,53 @@ import java.util.UUID;
 class DatabaseValueToFieldType {
 
    private static Logger logger = LoggerFactory.getLogger(DatabaseValueToFieldType.class);
+   /**
+    * The value types the built-in converters accept. Values of other types are converted by type inspection: SQLite provides Integer or Long instead of Timestamp, Time and Date.
+    */
+   // TODO Deal also with util.Date > TIME converter?
+   private static final Map<Class<?>, Class<?>> CONVERTER_VALUE_TYPES = new HashMap<>();
+
+   static {
+      CONVERTER_VALUE_TYPES.put(DateTimestampConverter.class, Timestamp.class);
+      CONVERTER_VALUE_TYPES.put(CalendarTimestampConverter.class, Timestamp.class);
+      CONVERTER_VALUE_TYPES.put(CalenderTimeConverter.class, Time.class);
+      CONVERTER_VALUE_TYPES.put(CalendarDateConverter.class, Date.class);
+      CONVERTER_VALUE_TYPES.put(UtilDateDateConverter.class, java.sql.Date.class);
+   }
+
+   /**
+    * Converts the values of one column, see {@link #conversionFor(AttributeInfo, String, Introspected)}.
+    */
+   interface Conversion {
+      Object convert(Object value);
+   }
+
    /**
     * Adjust the value's type as retrieved from database to the field's type in the Java entity when necessary.
     *
     * @return type corrected value
     */
    Object adaptValueToFieldType(@NotNull final AttributeInfo fcInfo, final Object value, final ResultSetMetaData metaData, final Introspected introspected, final int colIdx) {
-      String columnTypeName = null;
+      final String columnTypeName;
+      try {
+         columnTypeName = metaData.getColumnTypeName(colIdx);
+      }
+      catch (SQLException e) {
+         logger.error("fcInfo={}", fcInfo);
+         throw new RuntimeException(e);
+      }
+      return adaptValueToFieldType(fcInfo, value, columnTypeName, introspected);
+   }
+
+   /**
+    * @param columnTypeName As provided by {@link ResultSetMetaData#getColumnTypeName(int)}.
+    * @see #adaptValueToFieldType(AttributeInfo, Object, ResultSetMetaData, Introspected, int)
+    */
+   Object adaptValueToFieldType(@NotNull final AttributeInfo fcInfo, final Object value, final String columnTypeName, final Introspected introspected) {
       Class<?> fieldType = null;
       try {
          fieldType = fcInfo.getType();
          Object typeCorrectedValue;
-         columnTypeName = metaData.getColumnTypeName(colIdx);
 
          if (value != null && fcInfo.getConverter() != null) {
             typeCorrectedValue = applyConverter(fcInfo, value, introspected, columnTypeName, fieldType);
@@ -54,58 +91,52 @@ class DatabaseValueToFieldType {
    }
 
    private Object applyConverter(final @NotNull AttributeInfo fcInfo, final Object value, final Introspected introspected, final String columnTypeName, final Class<?> fieldType) throws IOException, SQLException {
-      final Object typeCorrectedValue;
-      AttributeConverter converter = fcInfo.getConverter();
-      if (converter.getClass() == DateTimestampConverter.class) {
-         // Hack for SQLite, providing Integer not Timestamp.
-         if (Timestamp.class.isAssignableFrom(value.getClass())) {
-            typeCorrectedValue = converter.convertToEntityAttribute(value);
-         }
-         else {
-            typeCorrectedValue = adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
-         }
+      final AttributeConverter converter = fcInfo.getConverter();
+      final Class<?> expectedType = CONVERTER_VALUE_TYPES.get(converter.getClass());
+      if (expectedType == null || expectedType.isInstance(value)) {
+         return converter.convertToEntityAttribute(value);
       }
-      else if (converter.getClass() == CalendarTimestampConverter.class) {
-         // Hack for SQLite, providing Long not Timestamp.
-         if (Timestamp.class.isAssignableFrom(value.getClass())) {
-            typeCorrectedValue = converter.convertToEntityAttribute(value);
-         }
-         else {
-            typeCorrectedValue = adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
-         }
-      }
-      else if (converter.getClass() == CalenderTimeConverter.class) {
-         // Hack for SQLite, providing Long not Time.
-         if (Time.class.isAssignableFrom(value.getClass())) {
-            typeCorrectedValue = converter.convertToEntityAttribute(value);
-         }
-         else {
-            typeCorrectedValue = adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
-         }
-      }
-      else if (converter.getClass() == CalendarDateConverter.class) {
-         // Hack for SQLite, providing Long not Date.
-         if (Date.class.isAssignableFrom(value.getClass())) {
-            typeCorrectedValue = converter.convertToEntityAttribute(value);
-         }
-         else {
-            typeCorrectedValue = adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
-         }
+      return adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
+   }
+
+   /**
+    * Resolves how to convert the values of a column to the attribute's type, so it is not done again for each value. To be used by per column mapping plans.
+    *
+    * @param columnTypeName As provided by {@link ResultSetMetaData#getColumnTypeName(int)}.
+    * @return Does the same as {@link #adaptValueToFieldType(AttributeInfo, Object, String, Introspected)}.
+    */
+   Conversion conversionFor(@NotNull final AttributeInfo fcInfo, final String columnTypeName, final Introspected introspected) {
+      final AttributeConverter converter = fcInfo.getConverter();
+      if (converter == null) {
+         return value -> adaptValueToFieldType(fcInfo, value, columnTypeName, introspected);
+      }
+      final Class<?> fieldType = fcInfo.getType();
+      final Class<?> expectedType = CONVERTER_VALUE_TYPES.get(converter.getClass());
+      if (expectedType == null) {
+         return value -> {
+            try {
+               return value != null ? converter.convertToEntityAttribute(value) : null;
+            }
+            catch (Exception e) {
+               logger.error("columnTypeName={}\n fieldType={}\n value={}\n fcInfo={}", columnTypeName, fieldType, value, fcInfo);
+               throw new RuntimeException(e);
+            }
+         };
       }
-      else if (converter.getClass() == UtilDateDateConverter.class) {
-         // Hack for SQLite, providing Long not Date.
-         if (java.sql.Date.class.isAssignableFrom(value.getClass())) {
-            typeCorrectedValue = converter.convertToEntityAttribute(value);
+      return value -> {
+         try {
+            if (value == null) {
+               return null;
+            }
+            return expectedType.isInstance(value)
+                   ? converter.convertToEntityAttribute(value)
+                   : adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
          }
-         else {
-            typeCorrectedValue = adaptByTypeInspection(fcInfo, value, introspected, columnTypeName, fieldType);
+         catch (Exception e) {
+            logger.error("columnTypeName={}\n fieldType={}\n value={}\n fcInfo={}", columnTypeName, fieldType, value, fcInfo);
+            throw new RuntimeException(e);
          }
-      }
-      // TODO Deal also with util.Date > TIME converter?
-      else {
-         typeCorrectedValue = converter.convertToEntityAttribute(value);
-      }
-      return typeCorrectedValue;
+      };
    }
 
    private Object adaptByTypeInspection(final @NotNull AttributeInfo fcInfo, @Nullable final Object value, final Introspected introspected, final String columnTypeName, final Class<?> fieldType) throws IOException, SQLException {
@@ -0,0 +1,36 @@
+package com.zaxxer.q2o;
+
+/**
+ * Reflection-free access to an entity class, generated at compile time by {@link com.zaxxer.q2o.processor.EntityProcessor}. Not to be implemented by hand.
+ * <p>
+ * q2o looks for the accessor of an entity class when it is introspected, if the class is listed in an {@link #INDEX} resource of its class loader: same package, the class's binary name without package with '$' replaced by '_', plus {@link #SUFFIX}. If present, it instantiates the entity and reads and writes its fields through the accessor instead of method handles spun at runtime.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public interface EntityAccessor {
+
+   String SUFFIX = "_Q2o";
+   /**
+    * Resource listing the binary names of the entity classes with a generated accessor, one per line. Written by the processor, so entity classes without accessor are not looked up in vain.
+    */
+   String INDEX = "META-INF/q2o/entity-accessors";
+
+   /**
+    * @return A new instance of the entity class. null if it has no no-arg constructor accessible from its package.
+    */
+   Object newInstance();
+
+   /**
+    * @return The names of the fields accessible by {@link #get(Object, int)} and {@link #set(Object, int, Object)}, in declaration order. The index of a name is its attribute index.
+    */
+   String[] attributeNames();
+
+   Object get(Object entity, int attribute);
+
+   /**
+    * @param value Of the field's type, boxed with primitive fields, but not null then.
+    */
+   void set(Object entity, int attribute, Object value);
+}
@@ -0,0 +1,346 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.Cacheable;
+import javax.transaction.RollbackException;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.Transaction;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of the entities of a class by primary key, used by {@link Q2Obj#byId(Class, Object...)}, and of query results, used by {@link Q2ObjList#fromClause(Class, String, Object...)} and {@link Q2ObjList#fromRawClause(Class, String, Object...)}. For reference data that rarely changes.
+ * <p>
+ * The entity cache is enabled per entity class with {@link Cacheable} or {@link q2o#setEntityCache(Class, int, long)}, the query cache with {@link q2o#setQueryCache(Class, int, long)}. Query results are cached by SQL and parameter values. Both hold a snapshot of the attribute values of each entity, so each read returns new instances. The copy is shallow: attribute values like Dates or related entities are shared between the instances.
+ * </p><p>
+ * Any write of an entity class through q2o clears the caches of all entity classes mapped to the same table, i. e. Q2Obj insert, update, delete and deleteByWhereClause and their Q2ObjList counterparts. Writes with plain SQL are not detected, call {@link q2o#clearEntityCache(Class)} then. Within a transaction of the registered {@link javax.transaction.TransactionManager} the cache is also cleared after commit or rollback, and until then bypassed by the writing transaction. So other threads do not see uncommitted changes and the writing transaction sees its own.
+ * </p><p>
+ * Within Spring managed transactions and on connections not in auto-commit mode the caches are bypassed, neither read nor populated, because their uncommitted changes would otherwise be cached and reads of them could see stale data. After a write within a Spring managed transaction the caches are cleared after commit or rollback too, as other threads may have cached the previous state meanwhile. Writes on connections not in auto-commit mode outside of such transactions are not tracked: the caches are cleared at the time of the write only, call {@link q2o#clearEntityCache(Class)} after commit then.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class EntityCache {
+
+   static final int DEFAULT_MAX_ENTRIES = Integer.getInteger("com.zaxxer.q2o.entityCacheSize", 1000);
+   static final long DEFAULT_TTL_MILLIS = Long.getLong("com.zaxxer.q2o.entityCacheTtlMillis", 60_000L);
+   /**
+    * Larger query results are not cached. Bounds, together with the number of entries, the memory held by a query cache.
+    */
+   static final int MAX_QUERY_ROWS = Integer.getInteger("com.zaxxer.q2o.queryCacheMaxRows", 1000);
+   private static final Map<Class<?>, EntityCache> caches = new ConcurrentHashMap<>();
+   /**
+    * Entity classes written by the running transactions.
+    */
+   private static final Map<Transaction, Set<Class<?>>> writtenByTransaction = new ConcurrentHashMap<>();
+   /**
+    * Key of the entity classes written by a Spring managed transaction, bound as its resource.
+    */
+   private static final Object SPRING_TX_RESOURCE = new Object();
+
+   private final Class<?> clazz;
+   /**
+    * null if caching by id is disabled for clazz.
+    */
+   @Nullable
+   private volatile BoundedCache<Object, Object[]> entities;
+   /**
+    * null if caching of query results is disabled for clazz.
+    */
+   @Nullable
+   private volatile BoundedCache<List<Object>, List<Object[]>> queries;
+   /**
+    * Incremented with each invalidation. To not cache entities read before.
+    */
+   private final AtomicLong version = new AtomicLong();
+   private String tableName;
+
+   private EntityCache(final Class<?> clazz, final int maxEntries, final long ttlMillis) {
+      this.clazz = clazz;
+      this.entities = maxEntries > 0 ? BoundedCache.create("EntityCache." + clazz.getName(), maxEntries, ttlMillis) : null;
+   }
+
+   /**
+    * @return The cache of clazz. Disabled if clazz is neither annotated nor configured.
+    */
+   static EntityCache of(final Class<?> clazz) {
+      return caches.computeIfAbsent(clazz, cls -> {
+         final Cacheable cacheable = cls.getAnnotation(Cacheable.class);
+         return new EntityCache(cls, cacheable != null && cacheable.value() ? DEFAULT_MAX_ENTRIES : 0, DEFAULT_TTL_MILLIS);
+      });
+   }
+
+   /**
+    * @param maxEntries 0 to disable caching by id.
+    */
+   static void configure(final Class<?> clazz, final int maxEntries, final long ttlMillis) {
+      final EntityCache cache = of(clazz);
+      final BoundedCache<Object, Object[]> previous = cache.entities;
+      cache.entities = maxEntries > 0 ? BoundedCache.create("EntityCache." + clazz.getName(), maxEntries, ttlMillis) : null;
+      cache.version.incrementAndGet();
+      if (previous != null) {
+         previous.dispose();
+      }
+   }
+
+   /**
+    * @param maxEntries 0 to disable caching of query results.
+    */
+   static void configureQueries(final Class<?> clazz, final int maxEntries, final long ttlMillis) {
+      final EntityCache cache = of(clazz);
+      final BoundedCache<List<Object>, List<Object[]>> previous = cache.queries;
+      cache.queries = maxEntries > 0 ? BoundedCache.create("QueryCache." + clazz.getName(), maxEntries, ttlMillis) : null;
+      cache.version.incrementAndGet();
+      if (previous != null) {
+         previous.dispose();
+      }
+   }
+
+   /**
+    * Drops all caches and their configuration.
+    */
+   static void reset() {
+      final List<EntityCache> entityCaches = new ArrayList<>(caches.values());
+      caches.clear();
+      entityCaches.forEach(EntityCache::dispose);
+      writtenByTransaction.clear();
+   }
+
+   /**
+    * To be called on each write of entities of clazz. Invalidates the caches of all entity classes mapped to the same table.
+    */
+   static void invalidate(final Class<?> clazz) {
+      final EntityCache written = of(clazz);
+      List<Class<?>> invalidated = null;
+      for (final EntityCache cache : caches.values()) {
+         if (cache.isAnyEnabled() && (cache == written || cache.getTableName().equalsIgnoreCase(written.getTableName()))) {
+            cache.invalidate();
+            if (invalidated == null) {
+               invalidated = new ArrayList<>();
+            }
+            invalidated.add(cache.clazz);
+         }
+      }
+      if (invalidated == null) {
+         return;
+      }
+      final Transaction transaction = TransactionHelper.getActiveTransaction();
+      if (transaction != null) {
+         writtenByTransaction.computeIfAbsent(transaction, EntityCache::registerSynchronization).addAll(invalidated);
+      }
+      else if (SqlClosure.isSpringTxAware && TransactionSynchronizationManager.isSynchronizationActive()) {
+         writtenBySpringTransaction().addAll(invalidated);
+      }
+   }
+
+   boolean isEnabled() {
+      return entities != null;
+   }
+
+   boolean isQueryCacheEnabled() {
+      return queries != null;
+   }
+
+   /**
+    * @param loader Reads the entity from the database, if not cached.
+    * @return A copy of the cached entity or the loaded one. null if not found.
+    */
+   @SuppressWarnings("unchecked")
+   <T> T get(final Connection connection, final Object[] ids, final SqlFunction<T> loader) throws SQLException {
+      final BoundedCache<Object, Object[]> entities = this.entities;
+      if (entities == null || isBypassed(connection)) {
+         return loader.execute(connection);
+      }
+      final Object key = key(ids);
+      final Object[] values = entities.get(key);
+      final Introspected introspected = Introspected.getInstance(clazz);
+      if (values != null) {
+         return (T) introspected.copyOf(values);
+      }
+      final long versionBeforeLoad = version.get();
+      final T entity = loader.execute(connection);
+      if (entity != null && versionBeforeLoad == version.get()) {
+         entities.put(key, introspected.snapshot(entity));
+      }
+      return entity;
+   }
+
+   /**
+    * @param loader Executes sql with args, if not cached.
+    * @return Copies of the cached entities or the loaded ones.
+    */
+   @SuppressWarnings("unchecked")
+   <T> List<T> list(final Connection connection, final String sql, final Object[] args, final SqlFunction<List<T>> loader) throws SQLException {
+      final BoundedCache<List<Object>, List<Object[]>> queries = this.queries;
+      if (queries == null || isBypassed(connection)) {
+         return loader.execute(connection);
+      }
+      final Object[] key = new Object[args.length + 1];
+      key[0] = sql;
+      for (int i = 0; i < args.length; i++) {
+         key[i + 1] = normalize(args[i]);
+      }
+      final List<Object> queryKey = Arrays.asList(key);
+      final List<Object[]> rows = queries.get(queryKey);
+      final Introspected introspected = Introspected.getInstance(clazz);
+      if (rows != null) {
+         final List<T> list = new ArrayList<>(rows.size());
+         for (final Object[] values : rows) {
+            list.add((T) introspected.copyOf(values));
+         }
+         return list;
+      }
+      final long versionBeforeLoad = version.get();
+      final List<T> list = loader.execute(connection);
+      if (list.size() <= MAX_QUERY_ROWS && versionBeforeLoad == version.get()) {
+         final List<Object[]> snapshots = new ArrayList<>(list.size());
+         for (final T entity : list) {
+            snapshots.add(introspected.snapshot(entity));
+         }
+         queries.put(queryKey, snapshots);
+      }
+      return list;
+   }
+
+   void invalidate() {
+      version.incrementAndGet();
+      final BoundedCache<Object, Object[]> entities = this.entities;
+      if (entities != null) {
+         entities.clear();
+      }
+      final BoundedCache<List<Object>, List<Object[]>> queries = this.queries;
+      if (queries != null) {
+         queries.clear();
+      }
+   }
+
+   private boolean isAnyEnabled() {
+      return entities != null || queries != null;
+   }
+
+   private String getTableName() {
+      if (tableName == null) {
+         final String name = Introspected.getInstance(clazz).getTableName();
+         tableName = name != null ? name : "";
+      }
+      return tableName;
+   }
+
+   private void dispose() {
+      final BoundedCache<Object, Object[]> entities = this.entities;
+      if (entities != null) {
+         entities.dispose();
+      }
+      final BoundedCache<List<Object>, List<Object[]>> queries = this.queries;
+      if (queries != null) {
+         queries.dispose();
+      }
+   }
+
+   /**
+    * @return true if the cache must not be used with connection. Within a transaction of the registered {@link javax.transaction.TransactionManager} only if it has written clazz, within any other transaction always.
+    */
+   private boolean isBypassed(final Connection connection) throws SQLException {
+      final Transaction transaction = TransactionHelper.getActiveTransaction();
+      if (transaction != null) {
+         final Set<Class<?>> classes = writtenByTransaction.get(transaction);
+         return classes != null && classes.contains(clazz);
+      }
+      if (SqlClosure.isSpringTxAware && TransactionSynchronizationManager.isActualTransactionActive()) {
+         return true;
+      }
+      return !connection.getAutoCommit();
+   }
+
+   private static Set<Class<?>> registerSynchronization(final Transaction transaction) {
+      try {
+         transaction.registerSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(final int status) {
+               final Set<Class<?>> classes = writtenByTransaction.remove(transaction);
+               if (classes != null) {
+                  // Others may have read and cached the old state meanwhile.
+                  classes.forEach(cls -> of(cls).invalidate());
+               }
+            }
+         });
+      }
+      catch (RollbackException | SystemException e) {
+         throw new RuntimeException(e);
+      }
+      return ConcurrentHashMap.newKeySet();
+   }
+
+   /**
+    * @return The entity classes written by the current Spring managed transaction. Bound as transaction resource, with a synchronization invalidating their caches after completion.
+    */
+   @SuppressWarnings("unchecked")
+   private static Set<Class<?>> writtenBySpringTransaction() {
+      final Set<Class<?>> bound = (Set<Class<?>>) TransactionSynchronizationManager.getResource(SPRING_TX_RESOURCE);
+      if (bound != null) {
+         return bound;
+      }
+      final Set<Class<?>> classes = ConcurrentHashMap.newKeySet();
+      TransactionSynchronizationManager.bindResource(SPRING_TX_RESOURCE, classes);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+         @Override
+         public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(SPRING_TX_RESOURCE);
+         }
+
+         @Override
+         public void resume() {
+            TransactionSynchronizationManager.bindResource(SPRING_TX_RESOURCE, classes);
+         }
+
+         @Override
+         public void afterCompletion(final int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(SPRING_TX_RESOURCE);
+            // Others may have read and cached the old state meanwhile.
+            classes.forEach(cls -> of(cls).invalidate());
+         }
+      });
+      return classes;
+   }
+
+   /**
+    * Integral ids and parameters are cached as Long, so byId(clazz, 1) and byId(clazz, 1L) find the same entity.
+    */
+   private static Object key(final Object[] ids) {
+      if (ids.length == 1) {
+         return normalize(ids[0]);
+      }
+      final Object[] key = new Object[ids.length];
+      for (int i = 0; i < ids.length; i++) {
+         key[i] = normalize(ids[i]);
+      }
+      return Arrays.asList(key);
+   }
+
+   private static Object normalize(final Object id) {
+      if (id instanceof Integer || id instanceof Long || id instanceof Short || id instanceof Byte) {
+         return ((Number) id).longValue();
+      }
+      if (id instanceof BigInteger && ((BigInteger) id).bitLength() < 64) {
+         return ((BigInteger) id).longValue();
+      }
+      return id;
+   }
+}
@@ -10,9 +10,22 @@ import java.lang.reflect.InvocationTargetException;
  */
 class FieldInfo extends AttributeInfo {
 
+   /**
+    * null if the field can only be accessed by reflection.
+    */
+   private final AttributeAccessor accessor;
+
    FieldInfo(final Field field, final Class clazz) {
+      this(field, clazz, null);
+   }
+
+   /**
+    * @param accessor null to create one for the field.
+    */
+   FieldInfo(final Field field, final Class clazz, final AttributeAccessor accessor) {
       super(field, clazz);
       field.setAccessible(true);
+      this.accessor = accessor != null ? accessor : AttributeAccessor.forField(field);
    }
 
    protected void extractFieldName(final Field accessibleObject) {
@@ -71,21 +84,21 @@ class FieldInfo extends AttributeInfo {
 
    Object getValue(final Object target) throws IllegalAccessException, InvocationTargetException {
       if (!isSelfJoinField()) {
-         return field.get(target);
+         return get(target);
       }
-      Object obj = field.get(target);
+      Object obj = get(target);
       return idValueFromEntity(obj);
    }
 
    void setValue(final Object target, final Object value) throws IllegalAccessException {
       try {
          if (!isSelfJoinField()) {
-            field.set(target, value);
+            set(target, value);
          }
          else {
             final Object obj = value != null ? idValueToParentEntity(target, value)
                                              : value;
-            field.set(target, obj);
+            set(target, obj);
          }
       }
       catch (InstantiationException e) {
@@ -94,6 +107,45 @@ class FieldInfo extends AttributeInfo {
       }
    }
 
+   @Override
+   AttributeAccessor getPlainAccessor() {
+      return isSelfJoinField() ? null : accessor;
+   }
+
+   private Object get(final Object target) throws IllegalAccessException {
+      if (accessor == null || target == null) {
+         return field.get(target);
+      }
+      try {
+         return accessor.get(target);
+      }
+      catch (RuntimeException | Error e) {
+         throw e;
+      }
+      catch (Throwable e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Values the accessor does not accept are left to {@link Field#set(Object, Object)}, which applies widening conversions or throws an IllegalArgumentException.
+    */
+   private void set(final Object target, final Object value) throws IllegalAccessException {
+      if (accessor == null || target == null || !accessor.accepts(value)) {
+         field.set(target, value);
+         return;
+      }
+      try {
+         accessor.set(target, value);
+      }
+      catch (RuntimeException | Error e) {
+         throw e;
+      }
+      catch (Throwable e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    @Override
    protected Column extractColumnAnnotation() {
       return field.getDeclaredAnnotation(Column.class);
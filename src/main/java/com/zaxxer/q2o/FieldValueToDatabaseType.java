@@ -19,7 +19,7 @@ class FieldValueToDatabaseType {
 
    private static Logger logger = LoggerFactory.getLogger(FieldValueToDatabaseType.class);
 
-   private static Object getValue(final Object target, final AttributeInfo fcInfo) {
+   static Object getValue(final Object target, final AttributeInfo fcInfo) {
       if (fcInfo == null) {
          throw new RuntimeException("FieldColumnInfo must not be null. Type is " + target.getClass().getCanonicalName());
       }
@@ -17,14 +17,23 @@
 package com.zaxxer.q2o;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.persistence.*;
 import java.beans.IntrospectionException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -39,6 +48,10 @@ final class Introspected {
    static {
       descriptorMap = new ConcurrentHashMap<>();
    }
+   /**
+    * Weak keys, to not hold class loaders of undeployed applications.
+    */
+   private static final Map<ClassLoader, Set<String>> accessorIndexes = new WeakHashMap<>();
 
    private final Class<?> clazz;
    final List<AttributeInfo> idFcInfos;
@@ -56,6 +69,14 @@ final class Introspected {
    private HashMap<Field, AccessType> fieldsAccessType;
    private final HashMap<String, ArrayList<AttributeInfo>> allFcInfosByTableName = new HashMap<>();
    private final TreeMap<String, Class<?>> tableNameToClassCaseInsensitive = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+   /**
+    * {@link #getFieldColumnInfo(String)} results by {@link #foldCase(String) case folded} column name. Hash lookups instead of case insensitive string comparisons along the path of {@link #columnToField}, which add up with wide tables.
+    */
+   private final HashMap<String, AttributeInfo> columnIndex = new HashMap<>();
+   /**
+    * {@link #tableNameToClassCaseInsensitive} by case folded table name.
+    */
+   private final HashMap<String, Class<?>> tableNameIndex = new HashMap<>();
    private final HashMap<Class<?>, AttributeInfo> actualTypeToFieldColumnInfo = new HashMap<Class<?>, AttributeInfo>();
 
    private boolean isGeneratedId;
@@ -73,6 +94,19 @@ final class Introspected {
    private AttributeInfo[] insertableFcInfosArray;
    private AttributeInfo[] updatableFcInfosArray;
    private AttributeInfo[] selectableFcInfos;
+   /**
+    * No-arg constructor of clazz. Resolved on first use.
+    */
+   private volatile MethodHandle constructor;
+   /**
+    * null if not generated for clazz.
+    */
+   private EntityAccessor entityAccessor;
+   private List<String> generatedAttributeNames;
+   /**
+    * The attributes of the table's own columns. Resolved on first use.
+    */
+   private volatile AttributeInfo[] snapshotFcInfos;
 
    private static final HashSet<Class<?>> jpaAnnotations = new HashSet<>();
 
@@ -195,6 +229,10 @@ final class Introspected {
 
    Introspected introspect() {
       if (!initialized) {
+         entityAccessor = lookupEntityAccessor(clazz);
+         if (entityAccessor != null) {
+            generatedAttributeNames = Arrays.asList(entityAccessor.attributeNames());
+         }
          extractClassTableName();
          tableNameToClassCaseInsensitive.put(tableName, clazz);
 
@@ -208,7 +246,7 @@ final class Introspected {
 
                final Class<?> fieldClass = field.getDeclaringClass();
                fcInfo = fieldsAccessType.get(field) == AccessType.FIELD
-                  ? new FieldInfo(field, clazz)
+                  ? new FieldInfo(field, clazz, generatedAccessor(field))
                   : new PropertyInfo(field, clazz);
                if (fcInfo.isToBeConsidered()) {
 
@@ -259,6 +297,7 @@ final class Introspected {
             }
 
             precalculateColumnInfos(idFcInfos);
+            buildIndexes();
 
          }
          catch (Exception e) {
@@ -271,17 +310,196 @@ final class Introspected {
       return this;
    }
 
+   private void buildIndexes() {
+      for (final Map.Entry<String, List<AttributeInfo>> entry : columnToField.entrySet()) {
+         for (final AttributeInfo attributeInfo : entry.getValue()) {
+            if (attributeInfo.isSelfJoinField() || !attributeInfo.isJoinColumn) {
+               columnIndex.put(foldCase(entry.getKey()), attributeInfo);
+               break;
+            }
+         }
+      }
+      tableNameToClassCaseInsensitive.forEach((name, cls) -> tableNameIndex.put(foldCase(name), cls));
+   }
+
+   /**
+    * Maps all names {@link String#CASE_INSENSITIVE_ORDER} considers equal to the same string. Returns name itself if it is already folded, e. g. lower case ASCII.
+    */
+   static String foldCase(final String name) {
+      final int length = name.length();
+      for (int i = 0; i < length; i++) {
+         final char c = name.charAt(i);
+         if (Character.toLowerCase(Character.toUpperCase(c)) != c) {
+            final char[] folded = name.toCharArray();
+            for (int j = i; j < length; j++) {
+               folded[j] = Character.toLowerCase(Character.toUpperCase(folded[j]));
+            }
+            return new String(folded);
+         }
+      }
+      return name;
+   }
+
+   /**
+    * @return The accessor generated by {@link com.zaxxer.q2o.processor.EntityProcessor} for clazz. null if there is none.
+    */
+   @Nullable
+   private static EntityAccessor lookupEntityAccessor(final Class<?> clazz) {
+      final ClassLoader loader = clazz.getClassLoader();
+      if (loader == null || !accessorIndexOf(loader).contains(clazz.getName())) {
+         return null;
+      }
+      final String name = clazz.getName();
+      final int packageEnd = name.lastIndexOf('.') + 1;
+      final String accessorName = name.substring(0, packageEnd) + name.substring(packageEnd).replace('$', '_') + EntityAccessor.SUFFIX;
+      try {
+         final Class<?> accessorClass = Class.forName(accessorName, true, loader);
+         if (EntityAccessor.class.isAssignableFrom(accessorClass)) {
+            return (EntityAccessor) accessorClass.getConstructor().newInstance();
+         }
+      }
+      catch (ReflectiveOperationException | LinkageError e) {
+         logger.warn("Ignoring {}", accessorName, e);
+      }
+      return null;
+   }
+
+   /**
+    * @return The names of the entity classes with a generated accessor, as listed in the {@link EntityAccessor#INDEX} resources visible to loader. Read once per class loader.
+    */
+   private static Set<String> accessorIndexOf(final ClassLoader loader) {
+      synchronized (accessorIndexes) {
+         return accessorIndexes.computeIfAbsent(loader, ldr -> {
+            final Set<String> entityNames = new HashSet<>();
+            try {
+               for (final URL url : Collections.list(ldr.getResources(EntityAccessor.INDEX))) {
+                  try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+                     String line;
+                     while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#")) {
+                           entityNames.add(line);
+                        }
+                     }
+                  }
+               }
+            }
+            catch (IOException e) {
+               logger.warn("Reading {} failed", EntityAccessor.INDEX, e);
+            }
+            return entityNames;
+         });
+      }
+   }
+
+   @Nullable
+   private AttributeAccessor generatedAccessor(final Field field) {
+      if (entityAccessor == null) {
+         return null;
+      }
+      final int attribute = generatedAttributeNames.indexOf(field.getName());
+      return attribute < 0 ? null : AttributeAccessor.forGenerated(entityAccessor, attribute, field.getType());
+   }
+
+   /**
+    * @return null if there is no generated accessor for the class.
+    */
+   @Nullable
+   EntityAccessor getEntityAccessor() {
+      return entityAccessor;
+   }
+
    private void addToAllFcInfosByTableName(final AttributeInfo fcInfo) {
       String tableName = fcInfo.getTableName();
       ArrayList<AttributeInfo> attributeInfos = allFcInfosByTableName.computeIfAbsent(tableName, tblName -> new ArrayList<>());
       attributeInfos.add(fcInfo);
    }
 
+   /**
+    * Like {@link Class#newInstance()} but without its access check on each call.
+    *
+    * @return A new instance of the introspected class.
+    */
+   Object newInstance() {
+      if (entityAccessor != null) {
+         final Object entity = entityAccessor.newInstance();
+         if (entity != null) {
+            return entity;
+         }
+      }
+      MethodHandle constructor = this.constructor;
+      try {
+         if (constructor == null) {
+            final Constructor<?> noArgConstructor = clazz.getDeclaredConstructor();
+            noArgConstructor.setAccessible(true);
+            constructor = MethodHandles.lookup().unreflectConstructor(noArgConstructor).asType(MethodType.methodType(Object.class));
+            this.constructor = constructor;
+         }
+         return constructor.invokeExact();
+      }
+      catch (RuntimeException | Error e) {
+         throw e;
+      }
+      catch (Throwable e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * @return The values of the attributes of entity that are mapped to columns of its own table.
+    * @see #copyOf(Object[])
+    */
+   Object[] snapshot(final Object entity) {
+      final AttributeInfo[] fcInfos = getSnapshotFcInfos();
+      final Object[] values = new Object[fcInfos.length];
+      try {
+         for (int i = 0; i < fcInfos.length; i++) {
+            values[i] = fcInfos[i].getValue(entity);
+         }
+      }
+      catch (IllegalAccessException | InvocationTargetException e) {
+         throw new RuntimeException(e);
+      }
+      return values;
+   }
+
+   /**
+    * @param values As returned by {@link #snapshot(Object)}.
+    * @return A new instance with the values set. A shallow copy of the entity the values were taken from.
+    */
+   Object copyOf(final Object[] values) {
+      final AttributeInfo[] fcInfos = getSnapshotFcInfos();
+      final Object entity = newInstance();
+      try {
+         for (int i = 0; i < fcInfos.length; i++) {
+            if (values[i] != null || !fcInfos[i].getType().isPrimitive()) {
+               fcInfos[i].setValue(entity, values[i]);
+            }
+         }
+      }
+      catch (IllegalAccessException e) {
+         throw new RuntimeException(e);
+      }
+      return entity;
+   }
+
+   private AttributeInfo[] getSnapshotFcInfos() {
+      AttributeInfo[] fcInfos = snapshotFcInfos;
+      if (fcInfos == null) {
+         // The attributes read by selects generated by OrmReader.
+         fcInfos = Arrays.stream(getSelectableFcInfos())
+            .filter(fcInfo -> !fcInfo.isJoinFieldWithSecondTable())
+            .toArray(AttributeInfo[]::new);
+         snapshotFcInfos = fcInfos;
+      }
+      return fcInfos;
+   }
+
    /**
     * @return new entity representing this table
     */
    Object getTableTarget(String tableName) throws IllegalAccessException, InstantiationException {
-      Class<?> cls = tableNameToClassCaseInsensitive.get(tableName);
+      Class<?> cls = tableNameIndex.get(foldCase(tableName));
       if (cls != null) {
          Introspected i = getInstance(cls);
          return i.clazz.newInstance();
@@ -302,7 +520,7 @@ final class Introspected {
 
    AttributeInfo getFieldColumnInfo(String tableName, String columnName) {
       logger.debug("tableName={} columnName={}", tableName, columnName);
-      Class<?> cls = tableNameToClassCaseInsensitive.get(tableName);
+      Class<?> cls = tableNameIndex.get(foldCase(tableName));
       if (cls == null && joinedEntity != null) {
          return joinedEntity.getFieldColumnInfo(tableName, columnName);
       }
@@ -342,16 +560,8 @@ final class Introspected {
     * @param columnName case insensitive column name without delimiters.
     */
    AttributeInfo getFieldColumnInfo(final String columnName) {
-      List<AttributeInfo> attributeInfos = columnToField.get(columnName);
-      // If objectFromSelect() did more fields retrieve as are defined on the entity.
-      if (attributeInfos != null) {
-         for (AttributeInfo attributeInfo : attributeInfos) {
-            if (attributeInfo.isSelfJoinField() || !attributeInfo.isJoinColumn) {
-               return attributeInfo;
-            }
-         }
-      }
-      return null;
+      // null if objectFromSelect() did more fields retrieve as are defined on the entity.
+      return columnIndex.get(foldCase(columnName));
    }
 
    /**
@@ -807,6 +1017,13 @@ final class Introspected {
       return idFcInfos;
    }
 
+   /**
+    * @return The id attributes in the order of {@link #getIdColumnNames()}.
+    */
+   AttributeInfo[] getIdFcInfosArray() {
+      return idFieldColumnInfos;
+   }
+
    boolean hasCompositePrimaryKey() {
       return getIdFcInfos().size() > 1;
    }
@@ -0,0 +1,96 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports to the {@link Q2oMetrics} set with {@link q2o#setMetrics(Q2oMetrics)} and to the {@link SlowQueryLog}. Usage: {@code long t = Metrics.start(); ...; t = Metrics.record(t, Phase.PREPARE, clazz, operation); ...}. With neither enabled, start() returns 0 and the other methods do nothing, so not even the clock is read.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class Metrics {
+
+   private static final Logger logger = LoggerFactory.getLogger(Metrics.class);
+   private static volatile Q2oMetrics metrics;
+   private static volatile boolean enabled;
+
+   private Metrics() {
+   }
+
+   static void set(@Nullable final Q2oMetrics metrics) {
+      Metrics.metrics = metrics;
+      update();
+   }
+
+   /**
+    * To be called when metrics or the slow query log were switched on or off.
+    */
+   static void update() {
+      enabled = metrics != null || SlowQueryLog.isEnabled();
+   }
+
+   /**
+    * @return The current time, 0 if disabled.
+    */
+   static long start() {
+      return enabled ? System.nanoTime() : 0;
+   }
+
+   /**
+    * Reports the time since start.
+    *
+    * @return The current time, as start of the next phase. 0 if start is 0.
+    */
+   static long record(final long start, final Q2oMetrics.Phase phase, @Nullable final Class<?> entityClass, final String operation) {
+      if (start == 0) {
+         return 0;
+      }
+      final long now = System.nanoTime();
+      final Q2oMetrics m = metrics;
+      if (m != null) {
+         try {
+            m.recordTime(phase, entityClass, operation, now - start);
+         }
+         catch (RuntimeException e) {
+            logger.warn("Recording metrics failed", e);
+         }
+      }
+      return now;
+   }
+
+   /**
+    * @return true if the operation is to be recorded in the {@link SlowQueryLog}. To collect its parameters only then.
+    */
+   static boolean isSlow(final long start, final long end) {
+      return start != 0 && SlowQueryLog.isSlow(end - start);
+   }
+
+   /**
+    * Reports the rows of an operation, and records it in the {@link SlowQueryLog} if it took long enough.
+    *
+    * @param start Of the operation, as returned by {@link #start()}. Nothing is reported if it is 0.
+    * @param mappingStart Of the row mapping. 0 if the operation does not map rows.
+    * @param end As returned by the last {@link #record(long, Q2oMetrics.Phase, Class, String)}.
+    * @param parameters The bound parameters, if known.
+    */
+   static void end(final long start, final long mappingStart, final long end, final Class<?> entityClass, final String operation, final long rows, @Nullable final String sql, @Nullable final Object[] parameters) {
+      if (start == 0) {
+         return;
+      }
+      final Q2oMetrics m = metrics;
+      if (m != null) {
+         try {
+            m.recordRows(entityClass, operation, rows);
+         }
+         catch (RuntimeException e) {
+            logger.warn("Recording metrics failed", e);
+         }
+      }
+      if (SlowQueryLog.isSlow(end - start)) {
+         final long executionNanos = (mappingStart != 0 ? mappingStart : end) - start;
+         SlowQueryLog.add(entityClass, operation, sql, parameters, executionNanos, end - start - executionNanos, rows);
+      }
+   }
+}
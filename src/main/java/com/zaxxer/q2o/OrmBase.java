@@ -16,29 +16,25 @@
 
 package com.zaxxer.q2o;
 
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationTargetException;
 import java.sql.Blob;
-import java.sql.ParameterMetaData;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * OrmBase
  */
 class OrmBase
 {
-   private static final Map<String, String> columnsCsvCache;
+   private static final BoundedCache<String, String> columnsCsvCache = BoundedCache.create("OrmBase.columnsCsvCache");
    private static Logger logger = LoggerFactory.getLogger(OrmBase.class.getName());
 
-   static {
-      columnsCsvCache = new ConcurrentHashMap<>();
-   }
-
    protected OrmBase() {
       // protected constructor
    }
@@ -46,6 +42,7 @@ class OrmBase
    static void clearCache()
    {
       columnsCsvCache.clear();
+      ParameterTypes.clearCache();
    }
 
    /*
@@ -74,19 +71,47 @@ Callers:
     */
    protected static void populateStatementParameters(final PreparedStatement stmt, final Object... args) throws SQLException
    {
-      final ParameterMetaData parameterMetaData = stmt.getParameterMetaData();
-      final int paramCount = parameterMetaData.getParameterCount();
+      populateStatementParameters(stmt, (String) null, args);
+   }
+
+   /**
+    * @param sql The SQL stmt was prepared with. Allows to reuse the parameter types of previous executions. null if unknown.
+    */
+   protected static void populateStatementParameters(final PreparedStatement stmt, @Nullable final String sql, final Object... args) throws SQLException
+   {
+      final int[] parameterTypes = ParameterTypes.of(stmt, sql);
+      final int paramCount = parameterTypes.length;
       if (paramCount > 0 && args.length < paramCount) {
          throw new RuntimeException("Too few parameters supplied for query");
       }
 
       for (int colIdx = paramCount; colIdx > 0; colIdx--) {
-         final int sqlType = parameterMetaData.getParameterType(colIdx);
+         final int sqlType = parameterTypes[colIdx - 1];
          final Object object = FieldValueToDatabaseType.getValue(args[colIdx - 1], sqlType);
          stmt.setObject(colIdx, object, sqlType);
       }
    }
 
+   /**
+    * Prepares sql on connection, reusing the statement of a previous call if the connection has a {@link StatementCache}. Closing the statement returns it to the cache.
+    */
+   static PreparedStatement prepareStatement(final Connection connection, final String sql) throws SQLException
+   {
+      return prepareStatement(connection, sql, null);
+   }
+
+   /**
+    * @param columnNames Columns of generated keys to return, or null.
+    */
+   static PreparedStatement prepareStatement(final Connection connection, final String sql, @Nullable final String[] columnNames) throws SQLException
+   {
+      final StatementCache statementCache = StatementCache.of(connection);
+      if (statementCache != null) {
+         return statementCache.prepare(connection, sql, columnNames);
+      }
+      return columnNames == null ? connection.prepareStatement(sql) : connection.prepareStatement(sql, columnNames);
+   }
+
    // public static <T> String getColumnsCsv(final Class<T> clazz, final String... tablePrefix)
 
    /**
@@ -140,7 +165,42 @@ Callers:
     * Case insensitive comparison.
     */
    protected static boolean isIgnoredColumn(final Set<String> ignoredColumns, final String columnName) {
-      return ignoredColumns.stream().anyMatch(s -> s.equalsIgnoreCase(columnName));
+      for (final String ignoredColumn : ignoredColumns) {
+         if (ignoredColumn.equalsIgnoreCase(columnName)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * @return columnNames case folded, to check many names case insensitive with {@link Introspected#foldCase(String)} and contains().
+    */
+   static Set<String> foldCase(final Set<String> columnNames) {
+      final Set<String> folded = new HashSet<>(columnNames.size() * 2);
+      for (final String columnName : columnNames) {
+         folded.add(Introspected.foldCase(columnName));
+      }
+      return folded;
+   }
+
+   /**
+    * @param columnNames Case insensitive. With or without delimiters.
+    * @return The indexes of the attributes in fcInfos whose column is in columnNames.
+    */
+   static BitSet columnIndexes(final AttributeInfo[] fcInfos, final Set<String> columnNames) {
+      final BitSet indexes = new BitSet(fcInfos.length);
+      if (columnNames.isEmpty()) {
+         return indexes;
+      }
+      final Set<String> folded = foldCase(columnNames);
+      for (int i = 0; i < fcInfos.length; i++) {
+         if (folded.contains(Introspected.foldCase(fcInfos[i].getColumnName()))
+            || folded.contains(Introspected.foldCase(fcInfos[i].getDelimitedColumnName()))) {
+            indexes.set(i);
+         }
+      }
+      return indexes;
    }
 
    protected static <T> String idsAsInClause(Class<T> clazz, List<T> objects) {
@@ -35,45 +35,93 @@ import java.util.function.Function;
  */
 // MULTIPLESTRINGS:OFF
 class OrmReader extends OrmBase {
-   private static final int CACHE_SIZE = Integer.getInteger("com.zaxxer.sansorm.statementCacheSize", 500);
    private static Logger LOGGER = LoggerFactory.getLogger(OrmBase.class);
 
-   private static final Map<String, String> fromClauseStmtCache;
-
-   static {
-      fromClauseStmtCache = Collections.synchronizedMap(
-         new LinkedHashMap<String, String>(CACHE_SIZE) {
-            private static final long serialVersionUID = 6259942586093454872L;
-
-            @Override
-            protected boolean removeEldestEntry(java.util.Map.Entry<String, String> eldest) {
-               return this.size() > CACHE_SIZE;
-            }
-      });
-   }
+   private static final BoundedCache<ClauseKey, String> fromClauseStmtCache = BoundedCache.create("OrmReader.fromClauseStmtCache");
+   /**
+    * SELECT ... WHERE id=? by entity class.
+    */
+   private static final BoundedCache<Class<?>, String> byIdStmtCache = BoundedCache.create("OrmReader.byIdStmtCache");
 
    static void clearCache()
    {
       fromClauseStmtCache.clear();
+      byIdStmtCache.clear();
+      RowMappingPlan.clearCache();
    }
 
    static <T> List<T> statementToList(final PreparedStatement stmt, final Class<T> clazz, final Object... args) throws SQLException {
+      return statementToList(stmt, (String) null, clazz, args);
+   }
+
+   /**
+    * @param sql The SQL stmt was prepared with. Allows to reuse the {@link RowMappingPlan} of previous executions. null if unknown.
+    */
+   static <T> List<T> statementToList(final PreparedStatement stmt, @Nullable final String sql, final Class<T> clazz, final Object... args) throws SQLException {
+      final long start = Metrics.start();
+      return executeList(stmt, sql, clazz, Q2oMetrics.LIST, start, start, args);
+   }
+
+   /**
+    * @param start Of the operation, as returned by {@link Metrics#start()}.
+    * @param executeStart Of the execution.
+    */
+   private static <T> List<T> executeList(final PreparedStatement stmt, @Nullable final String sql, final Class<T> clazz, final String operation, final long start, final long executeStart, final Object... args) throws SQLException {
       LOGGER.debug("{}", stmt);
       try (final PreparedStatement closeStmt = stmt;
-           ResultSet rs = statementToResultSet(stmt, args)) {
-         boolean next = rs.next();
-         if (next) {
-            return resultSetToList(rs, clazz);
-         }
-         else {
-            return new ArrayList<T>();
+           ResultSet rs = statementToResultSet(stmt, sql, args)) {
+         final long mappingStart = Metrics.record(executeStart, Q2oMetrics.Phase.EXECUTE, clazz, operation);
+         final List<T> list = rs.next() ? resultSetToList(rs, sql, clazz) : new ArrayList<T>();
+         final long end = Metrics.record(mappingStart, Q2oMetrics.Phase.MAPPING, clazz, operation);
+         Metrics.end(start, mappingStart, end, clazz, operation, list.size(), sql, args);
+         return list;
+      }
+   }
+
+   /**
+    * @param sql The SQL stmt was prepared with or null if unknown.
+    * @param fetchSize 0 to keep the driver's default.
+    * @return Iterator owning stmt.
+    */
+   static <T> Q2ObjIterator<T> statementToIterator(final PreparedStatement stmt, @Nullable final String sql, final Class<T> clazz, final int fetchSize, final Object... args) throws SQLException {
+      try {
+         if (fetchSize > 0) {
+            stmt.setFetchSize(fetchSize);
          }
+         LOGGER.debug("{}", stmt);
+         final ResultSet rs = statementToResultSet(stmt, sql, args);
+         return new Q2ObjIterator<>(stmt, rs, sql, clazz);
+      }
+      catch (SQLException | RuntimeException e) {
+         SqlClosure.quietClose(stmt);
+         throw e;
       }
    }
 
+   static <T> Q2ObjIterator<T> iteratorFromClause(final Connection connection, final Class<T> clazz, final int fetchSize, final String clause, final Object... args) throws SQLException
+   {
+      final String sql = generateSelectFromWhereClause(clazz, clause, true);
+      final PreparedStatement stmt = connection.prepareStatement(sql);
+      return statementToIterator(stmt, sql, clazz, fetchSize, args);
+   }
+
+   static <T> Q2ObjIterator<T> iteratorFromSelect(final Connection connection, final Class<T> clazz, final int fetchSize, final String select, final Object... args) throws SQLException
+   {
+      final PreparedStatement stmt = connection.prepareStatement(select);
+      return statementToIterator(stmt, select, clazz, fetchSize, args);
+   }
+
    static ResultSet statementToResultSet(final PreparedStatement stmt, final Object... args) throws SQLException
    {
-      populateStatementParameters(stmt, args);
+      return statementToResultSet(stmt, (String) null, args);
+   }
+
+   /**
+    * @param sql The SQL stmt was prepared with or null if unknown.
+    */
+   static ResultSet statementToResultSet(final PreparedStatement stmt, @Nullable final String sql, final Object... args) throws SQLException
+   {
+      populateStatementParameters(stmt, sql, args);
       return stmt.executeQuery();
    }
 
@@ -83,16 +131,26 @@ class OrmReader extends OrmBase {
     * @param resultSet ResultSet.next() must <i>NOT</i> been called before.
     */
    static <T> List<T> resultSetToList(final ResultSet resultSet, final Class<T> targetClass) throws SQLException {
-      ResultSetToObjectProcessor<T> processor = new ResultSetToObjectProcessor<>(resultSet, new HashSet<>());
+      return resultSetToList(resultSet, null, targetClass);
+   }
+
+   private static <T> List<T> resultSetToList(final ResultSet resultSet, @Nullable final String sql, final Class<T> targetClass) throws SQLException {
+      ResultSetToObjectProcessor<T> processor = new ResultSetToObjectProcessor<>(resultSet, Collections.emptySet(), sql);
       return processor.process(targetClass);
    }
 
-   private static <T> T statementToObject(final PreparedStatement stmt, final T target, final Object... args) throws SQLException
+   private static <T> T statementToObject(final PreparedStatement stmt, @Nullable final String sql, final T target, final Object... args) throws SQLException
    {
-      populateStatementParameters(stmt, args);
+      final long start = Metrics.start();
+      populateStatementParameters(stmt, sql, args);
       LOGGER.debug("{}", stmt);
       try (final ResultSet resultSet = stmt.executeQuery()) {
-         return resultSet.next() ? resultSetToObject(resultSet, target) : null;
+         final Class<?> clazz = target.getClass();
+         final long mappingStart = Metrics.record(start, Q2oMetrics.Phase.EXECUTE, clazz, Q2oMetrics.OBJECT);
+         final T object = resultSet.next() ? new ResultSetToObjectProcessor<T>(resultSet, Collections.emptySet(), sql).process(target) : null;
+         final long end = Metrics.record(mappingStart, Q2oMetrics.Phase.MAPPING, clazz, Q2oMetrics.OBJECT);
+         Metrics.end(start, mappingStart, end, clazz, Q2oMetrics.OBJECT, object != null ? 1 : 0, sql, args);
+         return object;
       }
       catch (Exception e) {
          throw new RuntimeException(e);
@@ -103,6 +161,13 @@ class OrmReader extends OrmBase {
    }
 
    static <T> T statementToObject(final PreparedStatement stmt, final Class<T> clazz, final Object... args) throws SQLException {
+      return statementToObject(stmt, (String) null, clazz, args);
+   }
+
+   /**
+    * @param sql The SQL stmt was prepared with. Allows to reuse the {@link RowMappingPlan} of previous executions. null if unknown.
+    */
+   static <T> T statementToObject(final PreparedStatement stmt, @Nullable final String sql, final Class<T> clazz, final Object... args) throws SQLException {
       T target;
       try {
          target = clazz.newInstance();
@@ -110,7 +175,7 @@ class OrmReader extends OrmBase {
       catch (Exception e) {
          throw new RuntimeException(e);
       }
-      return statementToObject(stmt, target, args);
+      return statementToObject(stmt, sql, target, args);
    }
 
    static <T> T resultSetToObject(final ResultSet resultSet, final T target) throws SQLException
@@ -125,15 +190,39 @@ class OrmReader extends OrmBase {
       return rsProcessor.process(target);
    }
 
+   /**
+    * Fast path for the most frequent query: SQL and parameter types are taken from caches and the entity is instantiated only if the row exists.
+    */
    static <T> T objectById(final Connection connection, final Class<T> clazz, final Object... args) throws SQLException
    {
-      String where = getWhereIdClause(Introspected.getInstance(clazz));
-      return objectFromClause(connection, clazz, where, args);
+      final EntityCache entityCache = EntityCache.of(clazz);
+      if (entityCache.isEnabled()) {
+         return entityCache.get(connection, args, c -> selectById(c, clazz, args));
+      }
+      return selectById(connection, clazz, args);
+   }
+
+   private static <T> T selectById(final Connection connection, final Class<T> clazz, final Object... args) throws SQLException
+   {
+      final Introspected introspected = Introspected.getInstance(clazz);
+      final String sql = generateSelectById(clazz);
+      final long start = Metrics.start();
+      try (final PreparedStatement stmt = prepareStatement(connection, sql)) {
+         final long executeStart = Metrics.record(start, Q2oMetrics.Phase.PREPARE, clazz, Q2oMetrics.BY_ID);
+         populateIdParameters(stmt, sql, introspected, args);
+         LOGGER.debug("{}", stmt);
+         try (final ResultSet resultSet = stmt.executeQuery()) {
+            final long mappingStart = Metrics.record(executeStart, Q2oMetrics.Phase.EXECUTE, clazz, Q2oMetrics.BY_ID);
+            final T object = resultSet.next() ? new ResultSetToObjectProcessor<T>(resultSet, Collections.emptySet(), sql).processRow(clazz) : null;
+            final long end = Metrics.record(mappingStart, Q2oMetrics.Phase.MAPPING, clazz, Q2oMetrics.BY_ID);
+            Metrics.end(start, mappingStart, end, clazz, Q2oMetrics.BY_ID, object != null ? 1 : 0, sql, args);
+            return object;
+         }
+      }
    }
 
    static <T> T objectById(final Connection connection, final T target) throws SQLException {
       Introspected introspected = Introspected.getInstance(target.getClass());
-      String where = getWhereIdClause(introspected);
       List<AttributeInfo> idFcInfos = introspected.getIdFcInfos();
       Object[] args = new Object[idFcInfos.size()];
       for (int i = 0; i < idFcInfos.size(); i++) {
@@ -145,15 +234,27 @@ class OrmReader extends OrmBase {
             throw new RuntimeException(e);
          }
       }
-      return objectFromClause(connection, target, where, args);
+      final String sql = generateSelectById(target.getClass());
+      final PreparedStatement stmt = prepareStatement(connection, sql);
+      return statementToObject(stmt, sql, target, args);
    }
 
    static <T> T refresh(final Connection connection, final T target) throws SQLException {
       final Introspected introspected = Introspected.getInstance(target.getClass());
-      final String where = getWhereIdClause(introspected);
-      final String sql = generateSelectFromWhereClause(target.getClass(), where, true);
-      final PreparedStatement stmt = connection.prepareStatement(sql);
-      return statementToObject(stmt, target, introspected.getActualIds(target));
+      final String sql = generateSelectById(target.getClass());
+      final PreparedStatement stmt = prepareStatement(connection, sql);
+      return statementToObject(stmt, sql, target, introspected.getActualIds(target));
+   }
+
+   private static void populateIdParameters(final PreparedStatement stmt, final String sql, final Introspected introspected, final Object... args) throws SQLException
+   {
+      final int[] parameterTypes = ParameterTypes.derived(stmt, sql, introspected::getIdFcInfosArray);
+      if (args.length < parameterTypes.length) {
+         throw new RuntimeException("Too few parameters supplied for query");
+      }
+      for (int i = 0; i < parameterTypes.length; i++) {
+         stmt.setObject(i + 1, FieldValueToDatabaseType.getValue(args[i], parameterTypes[i]), parameterTypes[i]);
+      }
    }
 
    private static String getWhereIdClause(Introspected introspected) {
@@ -174,37 +275,49 @@ class OrmReader extends OrmBase {
    {
       final String sql = generateSelectFromWhereClause(clazz, clause, true);
       // TODO SQL hier loggen
-      final PreparedStatement stmt = connection.prepareStatement(sql);
-
-      return statementToList(stmt, clazz, args);
+      return selectList(connection, clazz, sql, args);
    }
 
    static <T> List<T> listFromRawClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
    {
       final String sql = generateSelectFromWhereClause(clazz, clause, false);
-      final PreparedStatement stmt = connection.prepareStatement(sql);
+      return selectList(connection, clazz, sql, args);
+   }
 
-      return statementToList(stmt, clazz, args);
+   private static <T> List<T> selectList(final Connection connection, final Class<T> clazz, final String sql, final Object... args) throws SQLException
+   {
+      final EntityCache entityCache = EntityCache.of(clazz);
+      if (entityCache.isQueryCacheEnabled()) {
+         return entityCache.list(connection, sql, args, c -> executeSelectList(c, clazz, sql, args));
+      }
+      return executeSelectList(connection, clazz, sql, args);
+   }
+
+   private static <T> List<T> executeSelectList(final Connection connection, final Class<T> clazz, final String sql, final Object... args) throws SQLException
+   {
+      final long start = Metrics.start();
+      final PreparedStatement stmt = prepareStatement(connection, sql);
+      return executeList(stmt, sql, clazz, Q2oMetrics.FROM_CLAUSE, start, Metrics.record(start, Q2oMetrics.Phase.PREPARE, clazz, Q2oMetrics.FROM_CLAUSE), args);
    }
 
    static <T> T objectFromClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
    {
       final String sql = generateSelectFromWhereClause(clazz, clause, true);
-      final PreparedStatement stmt = connection.prepareStatement(sql);
-      return statementToObject(stmt, clazz, args);
+      final PreparedStatement stmt = prepareStatement(connection, sql);
+      return statementToObject(stmt, sql, clazz, args);
    }
 
    static <T> T objectFromRawClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
    {
       final String sql = generateSelectFromWhereClause(clazz, clause, false);
-      final PreparedStatement stmt = connection.prepareStatement(sql);
-      return statementToObject(stmt, clazz, args);
+      final PreparedStatement stmt = prepareStatement(connection, sql);
+      return statementToObject(stmt, sql, clazz, args);
    }
 
    static <T> T objectFromClause(final Connection connection, final T target, final String clause, final Object... args) throws SQLException {
       final String sql = generateSelectFromWhereClause(target.getClass(), clause, true);
-      final PreparedStatement stmt = connection.prepareStatement(sql);
-      return statementToObject(stmt, target, args);
+      final PreparedStatement stmt = prepareStatement(connection, sql);
+      return statementToObject(stmt, sql, target, args);
    }
 
    static <T> int countObjectsFromClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
@@ -233,8 +346,8 @@ class OrmReader extends OrmBase {
 
    static Number numberFromSql(final Connection connection, final String sql, final Object... args) throws SQLException
    {
-      try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
-         populateStatementParameters(stmt, args);
+      try (final PreparedStatement stmt = prepareStatement(connection, sql)) {
+         populateStatementParameters(stmt, sql, args);
          try (final ResultSet resultSet = stmt.executeQuery()) {
             if (resultSet.next()) {
                return (Number) resultSet.getObject(1);
@@ -246,8 +359,8 @@ class OrmReader extends OrmBase {
 
    static <T> List<T> numbersOrStringsFromSql(final Connection connection, Class<T> requiredType, final String sql, final Object... args) throws SQLException
    {
-      try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
-         populateStatementParameters(stmt, args);
+      try (final PreparedStatement stmt = prepareStatement(connection, sql)) {
+         populateStatementParameters(stmt, sql, args);
          List<T> numbers = new ArrayList<>();
          DatabaseValueToFieldType databaseValueToFieldType = new DatabaseValueToFieldType();
          try (final ResultSet resultSet = stmt.executeQuery()) {
@@ -313,20 +426,29 @@ class OrmReader extends OrmBase {
 
    static <T> String generateSelectFromWhereClause(final Class<T> clazz, final String clause, final boolean addLackingWhere)
    {
-      final String cacheKey = clazz.getName() + clause;
+      return fromClauseStmtCache.computeIfAbsent(new ClauseKey(clazz, clause, addLackingWhere), key -> createSelectFromWhereClause(clazz, clause, addLackingWhere));
+   }
 
-      return fromClauseStmtCache.computeIfAbsent(cacheKey, key -> {
-        final Introspected introspected = Introspected.getInstance(clazz);
-        final String tableName = introspected.getDelimitedTableName();
+   /**
+    * @return SELECT ... WHERE id=? [AND id2=? ...]
+    */
+   static String generateSelectById(final Class<?> clazz)
+   {
+      return byIdStmtCache.computeIfAbsent(clazz, key -> createSelectFromWhereClause(clazz, getWhereIdClause(Introspected.getInstance(clazz)), true));
+   }
+
+   private static String createSelectFromWhereClause(final Class<?> clazz, final String clause, final boolean addLackingWhere)
+   {
+      final Introspected introspected = Introspected.getInstance(clazz);
+      final String tableName = introspected.getDelimitedTableName();
 
-        final StringBuilder s = new StringBuilder()
-          .append("SELECT ").append(getColumnsCsv(clazz, tableName))
-          .append(" FROM ").append(tableName).append(' ').append(tableName);
+      final StringBuilder s = new StringBuilder()
+         .append("SELECT ").append(getColumnsCsv(clazz, tableName))
+         .append(" FROM ").append(tableName).append(' ').append(tableName);
 
-         generateWhereClause(clause, s, addLackingWhere);
+      generateWhereClause(clause, s, addLackingWhere);
 
-         return s.toString();
-      });
+      return s.toString();
    }
 
    private static void generateWhereClause(final String selectFromClause, final StringBuilder s, final boolean addLackingWhere) {
@@ -339,4 +461,40 @@ class OrmReader extends OrmBase {
       }
    }
 
+   /**
+    * Cache key of {@link #generateSelectFromWhereClause(Class, String, boolean)}. Cheaper than concatenating class name and clause on every call.
+    */
+   private static final class ClauseKey {
+      private final Class<?> clazz;
+      private final String clause;
+      private final boolean addLackingWhere;
+      private final int hash;
+
+      ClauseKey(final Class<?> clazz, @Nullable final String clause, final boolean addLackingWhere)
+      {
+         this.clazz = clazz;
+         this.clause = clause;
+         this.addLackingWhere = addLackingWhere;
+         this.hash = 31 * (31 * clazz.hashCode() + Objects.hashCode(clause)) + (addLackingWhere ? 1 : 0);
+      }
+
+      @Override
+      public boolean equals(final Object o)
+      {
+         if (this == o) {
+            return true;
+         }
+         if (!(o instanceof ClauseKey)) {
+            return false;
+         }
+         final ClauseKey key = (ClauseKey) o;
+         return clazz == key.clazz && addLackingWhere == key.addLackingWhere && Objects.equals(clause, key.clause);
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return hash;
+      }
+   }
 }
@@ -16,50 +16,46 @@
 
 package com.zaxxer.q2o;
 
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationTargetException;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * OrmWriter
  */
 class OrmWriter extends OrmBase
 {
-   private static final int CACHE_SIZE = Integer.getInteger("com.zaxxer.sansorm.statementCacheSize", 500);
-   private static final Map<Introspected, String> createStatementCache;
-   private static final Map<Introspected, String> updateStatementCache;
+   private static final BoundedCache<Introspected, String> createStatementCache = BoundedCache.create("OrmWriter.createStatementCache");
+   private static final BoundedCache<Introspected, String> updateStatementCache = BoundedCache.create("OrmWriter.updateStatementCache");
+   private static final BoundedCache<Introspected, String> deleteByIdStatementCache = BoundedCache.create("OrmWriter.deleteByIdStatementCache");
+   /**
+    * Multi-row insert SQL by number of rows.
+    */
+   private static final BoundedCache<Introspected, Map<Integer, String>> multiRowInsertStatementCache = BoundedCache.create("OrmWriter.multiRowInsertStatementCache");
+   /**
+    * DELETE ... WHERE id IN (?,...) SQL by number of ids.
+    */
+   private static final BoundedCache<Introspected, Map<Integer, String>> deleteInStatementCache = BoundedCache.create("OrmWriter.deleteInStatementCache");
+   private static final int MAX_IN_CHUNK_SIZE = Integer.getInteger("com.zaxxer.q2o.inClauseChunkSize", 256);
+   /**
+    * Upper bound of parameters per statement. SQL Server e. g. allows 2100 parameters, PostgreSQL 32767.
+    */
+   private static final int MAX_PARAMETERS = Integer.getInteger("com.zaxxer.q2o.maxStatementParameters", 2000);
    private static final Logger logger = LoggerFactory.getLogger(OrmBase.class);
    private static final DatabaseValueToFieldType DATABASE_VALUE_TO_FIELD_TYPE = new DatabaseValueToFieldType();
 
-   static {
-      createStatementCache = Collections.synchronizedMap(new LinkedHashMap<Introspected, String>(CACHE_SIZE) {
-         private static final long serialVersionUID = 4559270460685275064L;
-
-         @Override
-         protected boolean removeEldestEntry(final Map.Entry<Introspected, String> eldest)
-         {
-            return this.size() > CACHE_SIZE;
-         }
-      });
-
-      updateStatementCache = Collections.synchronizedMap(new LinkedHashMap<Introspected, String>(CACHE_SIZE) {
-         private static final long serialVersionUID = -5324251353646078607L;
-
-         @Override
-         protected boolean removeEldestEntry(final Map.Entry<Introspected, String> eldest)
-         {
-            return this.size() > CACHE_SIZE;
-         }
-      });
-   }
-
    static void clearCache()
    {
       createStatementCache.clear();
       updateStatementCache.clear();
+      multiRowInsertStatementCache.clear();
+      deleteInStatementCache.clear();
+      deleteByIdStatementCache.clear();
    }
 
    static <T> void insertListBatched(final Connection connection, final Iterable<T> iterable) throws SQLException
@@ -77,16 +73,111 @@ class OrmWriter extends OrmBase
       }
 
       final AttributeInfo[] insertableFcInfos = introspected.getInsertableFcInfos();
-      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, insertableFcInfos)) {
-         final int[] parameterTypes = getParameterTypes(stmt);
+      final long start = Metrics.start();
+      if (q2o.getMultiRowInsertChunkSize() > 1) {
+         try {
+            final int rows = insertListMultiRow(connection, iterable, introspected, insertableFcInfos, q2o.getMultiRowInsertChunkSize());
+            // Statements are prepared per chunk, so preparation is not told apart.
+            final long end = Metrics.record(start, Q2oMetrics.Phase.EXECUTE, clazz, Q2oMetrics.INSERT_BATCH);
+            Metrics.end(start, 0, end, clazz, Q2oMetrics.INSERT_BATCH, rows, null, null);
+         }
+         finally {
+            EntityCache.invalidate(clazz);
+         }
+         return;
+      }
+      final String sql = createSqlForInsert(introspected, insertableFcInfos);
+      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, sql)) {
+         final long executeStart = Metrics.record(start, Q2oMetrics.Phase.PREPARE, clazz, Q2oMetrics.INSERT_BATCH);
+         final int[] parameterTypes = ParameterTypes.of(stmt, sql, () -> insertableFcInfos);
+         int rows = 0;
          for (final T item : iterable) {
             setStatementParameters(item, introspected, insertableFcInfos, stmt, parameterTypes, null);
             stmt.addBatch();
+            rows++;
          }
          stmt.executeBatch();
+         fillGeneratedIds(iterable, rows, introspected, stmt);
+         final long end = Metrics.record(executeStart, Q2oMetrics.Phase.EXECUTE, clazz, Q2oMetrics.INSERT_BATCH);
+         Metrics.end(start, 0, end, clazz, Q2oMetrics.INSERT_BATCH, rows, sql, null);
+      }
+      finally {
+         EntityCache.invalidate(clazz);
       }
    }
 
+   /**
+    * Inserts chunks of rows with one INSERT ... VALUES (...),(...),... statement each. A chunk is cut down to not exceed {@link #MAX_PARAMETERS}. The rows of the last, incomplete chunk are inserted with statements of power of two sizes.
+    *
+    * @return Number of inserted rows.
+    */
+   private static <T> int insertListMultiRow(final Connection connection,
+                                              final Iterable<T> iterable,
+                                              final Introspected introspected,
+                                              final AttributeInfo[] insertableFcInfos,
+                                              final int chunkSize) throws SQLException
+   {
+      final int rowsPerChunk = Math.max(1, Math.min(chunkSize, MAX_PARAMETERS / Math.max(1, insertableFcInfos.length)));
+      final List<T> chunk = new ArrayList<>(rowsPerChunk);
+      PreparedStatement stmt = null;
+      int[] parameterTypes = null;
+      int rows = 0;
+      try {
+         for (final T item : iterable) {
+            chunk.add(item);
+            rows++;
+            if (chunk.size() == rowsPerChunk) {
+               if (stmt == null) {
+                  final String sql = createSqlForMultiRowInsert(introspected, insertableFcInfos, rowsPerChunk);
+                  stmt = createStatementForInsert(connection, introspected, sql);
+                  parameterTypes = ParameterTypes.of(stmt, sql, () -> repeat(insertableFcInfos, rowsPerChunk));
+               }
+               executeMultiRowInsert(chunk, introspected, insertableFcInfos, stmt, parameterTypes);
+               chunk.clear();
+            }
+         }
+      }
+      finally {
+         SqlClosure.quietClose(stmt);
+      }
+
+      // The last, incomplete chunk is split into statements of power of two sizes, e. g. 50 rows into 32 + 16 + 2. So at most log2(rowsPerChunk) statements are created and cached, not one for each size of the last chunk.
+      int offset = 0;
+      while (offset < chunk.size()) {
+         final int partRows = Integer.highestOneBit(chunk.size() - offset);
+         final String sql = partRows > 1 ? createSqlForMultiRowInsert(introspected, insertableFcInfos, partRows) : createSqlForInsert(introspected, insertableFcInfos);
+         try (final PreparedStatement partStmt = createStatementForInsert(connection, introspected, sql)) {
+            executeMultiRowInsert(chunk.subList(offset, offset + partRows), introspected, insertableFcInfos, partStmt, ParameterTypes.of(partStmt, sql, () -> repeat(insertableFcInfos, partRows)));
+         }
+         offset += partRows;
+      }
+      return rows;
+   }
+
+   private static <T> void executeMultiRowInsert(final List<T> chunk,
+                                                 final Introspected introspected,
+                                                 final AttributeInfo[] insertableFcInfos,
+                                                 final PreparedStatement stmt,
+                                                 final int[] parameterTypes) throws SQLException
+   {
+      int parameterIndex = 1;
+      for (final T item : chunk) {
+         parameterIndex = setStatementParameters(item, introspected, insertableFcInfos, stmt, parameterTypes, null, parameterIndex);
+      }
+      stmt.executeUpdate();
+      stmt.clearParameters();
+      fillGeneratedIds(chunk, chunk.size(), introspected, stmt);
+   }
+
+   private static AttributeInfo[] repeat(final AttributeInfo[] fcInfos, final int times)
+   {
+      final AttributeInfo[] repeated = new AttributeInfo[fcInfos.length * times];
+      for (int i = 0; i < times; i++) {
+         System.arraycopy(fcInfos, 0, repeated, i * fcInfos.length, fcInfos.length);
+      }
+      return repeated;
+   }
+
    static <T> void insertListNotBatched(final Connection connection, final Iterable<T> iterable) throws SQLException
    {
       final Iterator<T> iterableIterator = iterable.iterator();
@@ -100,8 +191,12 @@ class OrmWriter extends OrmBase
       final String[] idColumnNames = introspected.getIdColumnNames();
       final AttributeInfo[] insertableFcInfos = introspected.getInsertableFcInfos();
       // Insert
-      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, insertableFcInfos)) {
-         final int[] parameterTypes = getParameterTypes(stmt);
+      final String sql = createSqlForInsert(introspected, insertableFcInfos);
+      final long start = Metrics.start();
+      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, sql)) {
+         final long executeStart = Metrics.record(start, Q2oMetrics.Phase.PREPARE, clazz, Q2oMetrics.INSERT);
+         final int[] parameterTypes = ParameterTypes.of(stmt, sql, () -> insertableFcInfos);
+         int rows = 0;
          for (final T item : iterable) {
             setStatementParameters(item, introspected, insertableFcInfos, stmt, parameterTypes, null);
             try {
@@ -114,7 +209,13 @@ class OrmWriter extends OrmBase
             }
             fillGeneratedId(item, introspected, stmt, /*checkExistingId=*/false);
             stmt.clearParameters();
+            rows++;
          }
+         final long end = Metrics.record(executeStart, Q2oMetrics.Phase.EXECUTE, clazz, Q2oMetrics.INSERT);
+         Metrics.end(start, 0, end, clazz, Q2oMetrics.INSERT, rows, sql, null);
+      }
+      finally {
+         EntityCache.invalidate(clazz);
       }
    }
 
@@ -123,8 +224,17 @@ class OrmWriter extends OrmBase
       final Class<?> clazz = target.getClass();
       final Introspected introspected = Introspected.getInstance(clazz);
       final AttributeInfo[] insertableFcInfos = introspected.getInsertableFcInfos();
-      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, insertableFcInfos)) {
-         setParamsExecute(target, introspected, insertableFcInfos, stmt, /*checkExistingId=*/false, null);
+      final String sql = createSqlForInsert(introspected, insertableFcInfos);
+      final long start = Metrics.start();
+      try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, sql)) {
+         final long executeStart = Metrics.record(start, Q2oMetrics.Phase.PREPARE, clazz, Q2oMetrics.INSERT);
+         final int rows = setParamsExecute(target, introspected, insertableFcInfos, stmt, sql, /*checkExistingId=*/false, null);
+         final long end = Metrics.record(executeStart, Q2oMetrics.Phase.EXECUTE, clazz, Q2oMetrics.INSERT);
+         Metrics.end(start, 0, end, clazz, Q2oMetrics.INSERT, rows, sql,
+            Metrics.isSlow(start, end) ? parameterValues(target, introspected, insertableFcInfos, null, false) : null);
+      }
+      finally {
+         EntityCache.invalidate(clazz);
       }
       return target;
    }
@@ -134,24 +244,90 @@ class OrmWriter extends OrmBase
       return updateObject(connection, target, null);
    }
 
-   static <T> T updateObject(final Connection connection, final T target, final Set<String> excludedColumns) throws SQLException
+   /**
+    * @param excludedColumns Case insensitive. null to update all columns.
+    */
+   static <T> T updateObject(final Connection connection, final T target, @Nullable final Set<String> excludedColumns) throws SQLException
+   {
+      final Introspected introspected = Introspected.getInstance(target.getClass());
+      return updateAttributes(connection, target, excludedColumns == null ? null : columnIndexes(introspected.getUpdatableFcInfos(), excludedColumns));
+   }
+
+   /**
+    * @param includedColumns Case insensitive.
+    */
+   static <T> T updateObjectColumns(final Connection connection, final T target, final Set<String> includedColumns) throws SQLException
+   {
+      final Introspected introspected = Introspected.getInstance(target.getClass());
+      final AttributeInfo[] updatableFcInfos = introspected.getUpdatableFcInfos();
+      final BitSet excludedColumns = columnIndexes(updatableFcInfos, includedColumns);
+      excludedColumns.flip(0, updatableFcInfos.length);
+      return updateAttributes(connection, target, excludedColumns);
+   }
+
+   /**
+    * @param excludedColumns Indexes into {@link Introspected#getUpdatableFcInfos()}. Resolved once per call, so the per attribute checks are bit tests.
+    */
+   private static <T> T updateAttributes(final Connection connection, final T target, @Nullable final BitSet excludedColumns) throws SQLException
    {
       final Class<?> clazz = target.getClass();
       final Introspected introspected = Introspected.getInstance(clazz);
       final AttributeInfo[] updatableFcInfos = introspected.getUpdatableFcInfos();
-      if (excludedColumns == null) {
-         try (final PreparedStatement stmt = createStatementForUpdate(connection, introspected, updatableFcInfos)) {
-            setParamsExecute(target, introspected, updatableFcInfos, stmt, /*checkExistingId=*/true, null);
-         }
+      final String sql = excludedColumns == null
+         ? updateStatementCache.computeIfAbsent(introspected, key -> createSqlForUpdate(introspected, updatableFcInfos, null))
+         // To exclude columns situative. Does not cache the statement.
+         : createSqlForUpdate(introspected, updatableFcInfos, excludedColumns);
+      final long start = Metrics.start();
+      try (final PreparedStatement stmt = prepareStatement(connection, sql)) {
+         final long executeStart = Metrics.record(start, Q2oMetrics.Phase.PREPARE, clazz, Q2oMetrics.UPDATE);
+         final int rows = setParamsExecute(target, introspected, updatableFcInfos, stmt, sql, /*checkExistingId=*/true, excludedColumns);
+         final long end = Metrics.record(executeStart, Q2oMetrics.Phase.EXECUTE, clazz, Q2oMetrics.UPDATE);
+         Metrics.end(start, 0, end, clazz, Q2oMetrics.UPDATE, rows, sql,
+            Metrics.isSlow(start, end) ? parameterValues(target, introspected, updatableFcInfos, excludedColumns, true) : null);
       }
-      else {
-         try (final PreparedStatement stmt = createStatementForUpdate(connection, introspected, updatableFcInfos, excludedColumns)){
-            setParamsExecute(target, introspected, updatableFcInfos, stmt, /*checkExistingId=*/true, excludedColumns);
-         }
+      finally {
+         EntityCache.invalidate(clazz);
       }
       return target;
    }
 
+   /**
+    * Updates with JDBC batching. The ids of the objects must be set.
+    */
+   static <T> void updateListBatched(final Connection connection, final Iterable<T> iterable) throws SQLException
+   {
+      final Iterator<T> iterableIterator = iterable.iterator();
+      if (!iterableIterator.hasNext()) {
+         return;
+      }
+
+      final Class<?> clazz = iterableIterator.next().getClass();
+      final Introspected introspected = Introspected.getInstance(clazz);
+      final AttributeInfo[] updatableFcInfos = introspected.getUpdatableFcInfos();
+      final String sql = updateStatementCache.computeIfAbsent(introspected, key -> createSqlForUpdate(introspected, updatableFcInfos, null));
+      final long start = Metrics.start();
+      try (final PreparedStatement stmt = prepareStatement(connection, sql)) {
+         final long executeStart = Metrics.record(start, Q2oMetrics.Phase.PREPARE, clazz, Q2oMetrics.UPDATE_BATCH);
+         final int[] parameterTypes = ParameterTypes.of(stmt, sql, () -> parameterFcInfos(introspected, updatableFcInfos, null, /*withIds=*/true));
+         int rows = 0;
+         for (final T item : iterable) {
+            int parameterIndex = setStatementParameters(item, introspected, updatableFcInfos, stmt, parameterTypes, null);
+            for (final Object id : introspected.getActualIds(item)) {
+               stmt.setObject(parameterIndex, id, parameterTypes[parameterIndex - 1]);
+               ++parameterIndex;
+            }
+            stmt.addBatch();
+            rows++;
+         }
+         stmt.executeBatch();
+         final long end = Metrics.record(executeStart, Q2oMetrics.Phase.EXECUTE, clazz, Q2oMetrics.UPDATE_BATCH);
+         Metrics.end(start, 0, end, clazz, Q2oMetrics.UPDATE_BATCH, rows, sql, null);
+      }
+      finally {
+         EntityCache.invalidate(clazz);
+      }
+   }
+
    static <T> int deleteObject(final Connection connection, final T target) throws SQLException
    {
       final Class<?> clazz = target.getClass();
@@ -167,22 +343,21 @@ class OrmWriter extends OrmBase
    static <T> int deleteObjectById(final Connection connection, final Class<T> clazz, final Object... args) throws SQLException
    {
       final Introspected introspected = Introspected.getInstance(clazz);
-
-      final StringBuilder sql = new StringBuilder()
-        .append("DELETE FROM ").append(introspected.getDelimitedTableName())
-        .append(" WHERE ");
-
-      final String[] idColumnNames = introspected.getIdColumnNames();
-      if (idColumnNames.length == 0) {
+      if (introspected.getIdColumnNames().length == 0) {
          throw new RuntimeException("No id columns provided in: " + clazz.getName());
       }
+      final String sql = createSqlForDeleteById(introspected);
 
-      for (final String idColumn : idColumnNames) {
-         sql.append(idColumn).append("=? AND ");
+      final long start = Metrics.start();
+      try {
+         final int rows = executeUpdate(connection, sql, args);
+         final long end = Metrics.record(start, Q2oMetrics.Phase.EXECUTE, clazz, Q2oMetrics.DELETE);
+         Metrics.end(start, 0, end, clazz, Q2oMetrics.DELETE, rows, sql, args);
+         return rows;
+      }
+      finally {
+         EntityCache.invalidate(clazz);
       }
-      sql.setLength(sql.length() - 5);
-
-      return executeUpdate(connection, sql.toString(), args);
    }
 
    static <T> int deleteByWhereClause(final Connection connection, final Class<T> clazz, final String whereClause, final Object... args) throws SQLException
@@ -193,17 +368,79 @@ class OrmWriter extends OrmBase
         .append("DELETE FROM ").append(introspected.getDelimitedTableName())
         .append(" WHERE ").append(whereClause);
 
-      return executeUpdate(connection, sql.toString(), args);
+      try {
+         return executeUpdate(connection, sql.toString(), args);
+      }
+      finally {
+         EntityCache.invalidate(clazz);
+      }
    }
 
-   static <T> int deleteObjects(Connection connection, Class<T> clazz, List<T> objects) throws SQLException {
-      return deleteByWhereClause(connection, clazz, idsAsInClause(clazz, objects));
+   /**
+    * Deletes by chunks of ids given as parameters. The last chunk is padded to the next power of two by repeating its last id. So there are only a few distinct statements and the database can reuse their plans.
+    *
+    * @return number of deleted rows.
+    */
+   static <T> int deleteObjects(final Connection connection, final Class<T> clazz, final Iterable<T> objects) throws SQLException
+   {
+      final Introspected introspected = Introspected.getInstance(clazz);
+      final AttributeInfo[] idFcInfos = introspected.getIdFcInfos().toArray(new AttributeInfo[0]);
+      if (idFcInfos.length == 0) {
+         throw new RuntimeException("No id columns provided in: " + clazz.getName());
+      }
+
+      final int maxChunkSize = Math.max(1, Math.min(MAX_IN_CHUNK_SIZE, MAX_PARAMETERS / idFcInfos.length));
+      final List<T> chunk = new ArrayList<>(maxChunkSize);
+      int count = 0;
+      final long start = Metrics.start();
+      try {
+         for (final T object : objects) {
+            chunk.add(object);
+            if (chunk.size() == maxChunkSize) {
+               count += deleteChunk(connection, introspected, idFcInfos, chunk, maxChunkSize);
+               chunk.clear();
+            }
+         }
+         if (!chunk.isEmpty()) {
+            final int paddedSize = Math.min(chunk.size() == 1 ? 1 : Integer.highestOneBit(chunk.size() - 1) << 1, maxChunkSize);
+            count += deleteChunk(connection, introspected, idFcInfos, chunk, paddedSize);
+         }
+         final long end = Metrics.record(start, Q2oMetrics.Phase.EXECUTE, clazz, Q2oMetrics.DELETE_LIST);
+         // Statements differ by chunk size.
+         Metrics.end(start, 0, end, clazz, Q2oMetrics.DELETE_LIST, count, null, null);
+      }
+      finally {
+         EntityCache.invalidate(clazz);
+      }
+      return count;
+   }
+
+   private static <T> int deleteChunk(final Connection connection,
+                                      final Introspected introspected,
+                                      final AttributeInfo[] idFcInfos,
+                                      final List<T> chunk,
+                                      final int size) throws SQLException
+   {
+      final String sql = createSqlForDeleteIn(introspected, idFcInfos, size);
+      try (final PreparedStatement stmt = prepareStatement(connection, sql)) {
+         final int[] parameterTypes = ParameterTypes.of(stmt, sql, () -> repeat(idFcInfos, size));
+         int parameterIndex = 1;
+         for (int i = 0; i < size; i++) {
+            final T object = chunk.get(Math.min(i, chunk.size() - 1));
+            parameterIndex = setStatementParameters(object, introspected, idFcInfos, stmt, parameterTypes, null, parameterIndex);
+         }
+         return stmt.executeUpdate();
+      }
+      catch (Exception e) {
+         logger.error("{}", sql);
+         throw e;
+      }
    }
 
    static int executeUpdate(final Connection connection, final String sql, final Object... args) throws SQLException
    {
-      try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
-         populateStatementParameters(stmt, args);
+      try (final PreparedStatement stmt = prepareStatement(connection, sql)) {
+         populateStatementParameters(stmt, sql, args);
          return stmt.executeUpdate();
       }
       catch (Exception e) {
@@ -216,11 +453,40 @@ class OrmWriter extends OrmBase
    //                      P R I V A T E   M E T H O D S
    // -----------------------------------------------------------------------
 
-   private static PreparedStatement createStatementForInsert(final Connection connection,
-                                                             final Introspected introspected,
-                                                             final AttributeInfo[] fcInfos) throws SQLException
+   /**
+    * Builds the insert, update and delete by id statements of an entity ahead of their first use.
+    *
+    * @see q2o#preload(Class[])
+    */
+   static void preload(final Introspected introspected)
+   {
+      createSqlForInsert(introspected, introspected.getInsertableFcInfos());
+      if (introspected.getIdColumnNames().length > 0) {
+         final AttributeInfo[] updatableFcInfos = introspected.getUpdatableFcInfos();
+         if (updatableFcInfos.length > 0) {
+            updateStatementCache.computeIfAbsent(introspected, key -> createSqlForUpdate(introspected, updatableFcInfos, null));
+         }
+         createSqlForDeleteById(introspected);
+      }
+   }
+
+   private static String createSqlForDeleteById(final Introspected introspected)
+   {
+      return deleteByIdStatementCache.computeIfAbsent(introspected, key -> {
+         final StringBuilder sql = new StringBuilder()
+            .append("DELETE FROM ").append(introspected.getDelimitedTableName())
+            .append(" WHERE ");
+         for (final String idColumn : introspected.getIdColumnNames()) {
+            sql.append(idColumn).append("=? AND ");
+         }
+         sql.setLength(sql.length() - 5);
+         return sql.toString();
+      });
+   }
+
+   private static String createSqlForInsert(final Introspected introspected, final AttributeInfo[] fcInfos)
    {
-      final String sql = createStatementCache.computeIfAbsent(introspected, key -> {
+      return createStatementCache.computeIfAbsent(introspected, key -> {
          final String tableName = introspected.getDelimitedTableName();
          final StringBuilder sqlSB = new StringBuilder("INSERT INTO ").append(tableName).append('(');
          final StringBuilder sqlValues = new StringBuilder(") VALUES (");
@@ -235,51 +501,81 @@ class OrmWriter extends OrmBase
 
          return sqlSB.toString();
       });
-
-      if (introspected.hasGeneratedId()) {
-         return connection.prepareStatement(sql, introspected.getIdColumnNames());
-      }
-      else {
-         return connection.prepareStatement(sql);
-      }
    }
 
    /**
-    *
-    * @return newly created or already cached statement.
+    * @return INSERT INTO ... VALUES (...),(...),... with rows value lists.
     */
-   private static PreparedStatement createStatementForUpdate(final Connection connection,
-                                                             final Introspected introspected,
-                                                             final AttributeInfo[] fieldColumnInfos) throws SQLException
+   private static String createSqlForMultiRowInsert(final Introspected introspected, final AttributeInfo[] fcInfos, final int rows)
    {
-      final String sql = updateStatementCache.computeIfAbsent(introspected, key -> createSqlForUpdate(introspected, fieldColumnInfos, null));
+      final Map<Integer, String> sqlByRows = multiRowInsertStatementCache.computeIfAbsent(introspected, key -> new ConcurrentHashMap<>());
+      return sqlByRows.computeIfAbsent(rows, key -> {
+         final StringBuilder rowValues = new StringBuilder(",(");
+         for (int i = 0; i < fcInfos.length; i++) {
+            rowValues.append("?,");
+         }
+         rowValues.setCharAt(rowValues.length() - 1, ')');
 
-      return connection.prepareStatement(sql);
+         final StringBuilder sqlSB = new StringBuilder(createSqlForInsert(introspected, fcInfos));
+         for (int i = 1; i < rows; i++) {
+            sqlSB.append(rowValues);
+         }
+         return sqlSB.toString();
+      });
    }
 
    /**
-    * To exclude columns situative. Does not cache the statement.
+    * @return DELETE FROM ... WHERE id IN (?,...) or with composite keys DELETE FROM ... WHERE (id1=? AND id2=?) OR (...) with size ids.
     */
-   private static PreparedStatement createStatementForUpdate(final Connection connection,
+   private static String createSqlForDeleteIn(final Introspected introspected, final AttributeInfo[] idFcInfos, final int size)
+   {
+      final Map<Integer, String> sqlBySize = deleteInStatementCache.computeIfAbsent(introspected, key -> new ConcurrentHashMap<>());
+      return sqlBySize.computeIfAbsent(size, key -> {
+         final StringBuilder sqlSB = new StringBuilder("DELETE FROM ").append(introspected.getDelimitedTableName()).append(" WHERE ");
+         if (idFcInfos.length == 1) {
+            sqlSB.append(idFcInfos[0].getDelimitedColumnName()).append(" IN (");
+            for (int i = 0; i < size; i++) {
+               sqlSB.append("?,");
+            }
+            sqlSB.setCharAt(sqlSB.length() - 1, ')');
+         }
+         else {
+            for (int i = 0; i < size; i++) {
+               sqlSB.append('(');
+               for (final AttributeInfo idFcInfo : idFcInfos) {
+                  sqlSB.append(idFcInfo.getDelimitedColumnName()).append("=? AND ");
+               }
+               sqlSB.setLength(sqlSB.length() - 5);
+               sqlSB.append(") OR ");
+            }
+            sqlSB.setLength(sqlSB.length() - 4);
+         }
+         return sqlSB.toString();
+      });
+   }
+
+   private static PreparedStatement createStatementForInsert(final Connection connection,
                                                              final Introspected introspected,
-                                                             final AttributeInfo[] fieldColumnInfos,
-                                                             final Set<String> excludedColumns) throws SQLException
+                                                             final String sql) throws SQLException
    {
-      final String sql = createSqlForUpdate(introspected, fieldColumnInfos, excludedColumns);
-      return connection.prepareStatement(sql);
+      if (introspected.hasGeneratedId()) {
+         return prepareStatement(connection, sql, introspected.getIdColumnNames());
+      }
+      else {
+         return prepareStatement(connection, sql);
+      }
    }
 
    /**
     *
     * @return newly created statement
     */
-   private static String createSqlForUpdate(final Introspected introspected, final AttributeInfo[] fieldColumnInfos, final Set<String> excludedColumns)
+   private static String createSqlForUpdate(final Introspected introspected, final AttributeInfo[] fieldColumnInfos, @Nullable final BitSet excludedColumns)
    {
       final StringBuilder sqlSB = new StringBuilder("UPDATE ").append(introspected.getDelimitedTableName()).append(" SET ");
-      for (final AttributeInfo fcInfo : fieldColumnInfos) {
-//         if (excludedColumns == null || !excludedColumns.contains(column)) {
-         if (excludedColumns == null || !isIgnoredColumn(excludedColumns, fcInfo.getColumnName())) {
-            sqlSB.append(fcInfo.getDelimitedColumnName()).append("=?,");
+      for (int i = 0; i < fieldColumnInfos.length; i++) {
+         if (excludedColumns == null || !excludedColumns.get(i)) {
+            sqlSB.append(fieldColumnInfos[i].getDelimitedColumnName()).append("=?,");
          }
       }
       sqlSB.deleteCharAt(sqlSB.length() - 1);
@@ -295,16 +591,21 @@ class OrmWriter extends OrmBase
       return sqlSB.toString();
    }
 
-   /** You should close stmt by yourself */
-   private static <T> void setParamsExecute(final T target,
+   /**
+    * You should close stmt by yourself
+    *
+    * @return The update count.
+    */
+   private static <T> int setParamsExecute(final T target,
                                             final Introspected introspected,
                                             final AttributeInfo[] fcInfos,
                                             final PreparedStatement stmt,
+                                            final String sql,
                                             final boolean checkExistingId,
-                                            final Set<String> excludedColumns)
+                                            @Nullable final BitSet excludedColumns)
       throws SQLException
    {
-      final int[] parameterTypes = getParameterTypes(stmt);
+      final int[] parameterTypes = ParameterTypes.of(stmt, sql, () -> parameterFcInfos(introspected, fcInfos, excludedColumns, /*withIds=*/checkExistingId));
       int parameterIndex = setStatementParameters(target, introspected, fcInfos, /*hasSelfJoinColumn*/ stmt, parameterTypes, excludedColumns);
 
       // If there is still a parameter left to be set, it's the ID used for an update
@@ -315,15 +616,17 @@ class OrmWriter extends OrmBase
          }
       }
 
+      final int rows;
       try {
          logger.debug("{}", stmt);
-         stmt.executeUpdate();
+         rows = stmt.executeUpdate();
       }
       catch (Exception e) {
          logger.error("statement={}", stmt);
          throw e;
       }
       fillGeneratedId(target, introspected, stmt, checkExistingId);
+      return rows;
    }
 
    /** Small helper to set statement parameters from given object */
@@ -332,10 +635,25 @@ class OrmWriter extends OrmBase
                                                  final AttributeInfo[] fcInfos,
                                                  final PreparedStatement stmt,
                                                  final int[] parameterTypes,
-                                                 final Set<String> excludedColumns) throws SQLException {
-      int parameterIndex = 1;
-      for (final AttributeInfo fcInfo : fcInfos) {
-         if (excludedColumns == null || !isIgnoredColumn(excludedColumns, fcInfo.getColumnName())) {
+                                                 @Nullable final BitSet excludedColumns) throws SQLException {
+      return setStatementParameters(item, introspected, fcInfos, stmt, parameterTypes, excludedColumns, 1);
+   }
+
+   /**
+    * @param excludedColumns Indexes into fcInfos of attributes not to set.
+    * @param parameterIndex Index of the first parameter to set.
+    * @return Index of the next parameter.
+    */
+   private static <T> int setStatementParameters(final T item,
+                                                 final Introspected introspected,
+                                                 final AttributeInfo[] fcInfos,
+                                                 final PreparedStatement stmt,
+                                                 final int[] parameterTypes,
+                                                 @Nullable final BitSet excludedColumns,
+                                                 int parameterIndex) throws SQLException {
+      for (int i = 0; i < fcInfos.length; i++) {
+         final AttributeInfo fcInfo = fcInfos[i];
+         if (excludedColumns == null || !excludedColumns.get(i)) {
             final int sqlType = parameterTypes[parameterIndex - 1];
             final Object object = FieldValueToDatabaseType.getValue(item, fcInfo, sqlType);
             if (q2o.isMySqlMode()) {
@@ -422,13 +740,93 @@ class OrmWriter extends OrmBase
       }
    }
 
-   private static int[] getParameterTypes(final PreparedStatement stmt) throws SQLException
+   /**
+    * Sets the auto-generated ids of a batched or multi-row insert in order.
+    */
+   private static <T> void fillGeneratedIds(final Iterable<T> targets,
+                                            final int rows,
+                                            final Introspected introspected,
+                                            final PreparedStatement stmt) throws SQLException {
+      if (!introspected.hasGeneratedId()) {
+         return;
+      }
+      try (final ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+         if (generatedKeys != null) {
+            fillGeneratedIds(targets, rows, introspected, generatedKeys);
+         }
+      }
+   }
+
+   /**
+    * Ids are set only if there is a key per row. Some drivers return just the key of the last row of a batch.
+    *
+    * @return number of ids set.
+    */
+   static <T> int fillGeneratedIds(final Iterable<T> targets,
+                                   final int rows,
+                                   final Introspected introspected,
+                                   final ResultSet generatedKeys) throws SQLException {
+      // Some drivers do not provide meta data after the last row.
+      final String columnTypeName = generatedKeys.getMetaData().getColumnTypeName(1);
+      final List<Object> keys = new ArrayList<>(rows);
+      while (generatedKeys.next()) {
+         keys.add(generatedKeys.getObject(1));
+      }
+      if (keys.size() != rows) {
+         logger.debug("Got {} generated keys for {} rows. Ids are not set.", keys.size(), rows);
+         return 0;
+      }
+
+      final AttributeInfo fcInfo = introspected.getGeneratedIdFcInfo();
+      int keyIdx = 0;
+      try {
+         for (final T target : targets) {
+            if (keyIdx == rows) {
+               break;
+            }
+            final Object typeCorrectedValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(fcInfo, keys.get(keyIdx++), columnTypeName, introspected);
+            fcInfo.setValue(target, typeCorrectedValue);
+         }
+      }
+      catch (IllegalAccessException e) {
+         throw new RuntimeException(e);
+      }
+      return keyIdx;
+   }
+
+   /**
+    * @param withIds true with updates: The ids of the WHERE clause follow the values.
+    * @return The attributes bound to the parameters of an insert or update statement in parameter order.
+    */
+   private static AttributeInfo[] parameterFcInfos(final Introspected introspected, final AttributeInfo[] fcInfos, @Nullable final BitSet excludedColumns, final boolean withIds)
    {
-      final ParameterMetaData metaData = stmt.getParameterMetaData();
-      final int[] parameterTypes = new int[metaData.getParameterCount()];
-      for (int parameterIndex = 1; parameterIndex <= metaData.getParameterCount(); parameterIndex++) {
-         parameterTypes[parameterIndex - 1] = metaData.getParameterType(parameterIndex);
+      final List<AttributeInfo> parameterFcInfos = new ArrayList<>();
+      for (int i = 0; i < fcInfos.length; i++) {
+         if (excludedColumns == null || !excludedColumns.get(i)) {
+            parameterFcInfos.add(fcInfos[i]);
+         }
+      }
+      if (withIds) {
+         parameterFcInfos.addAll(introspected.getIdFcInfos());
+      }
+      return parameterFcInfos.toArray(new AttributeInfo[0]);
+   }
+
+   /**
+    * @return The values bound by {@link #setParamsExecute(Object, Introspected, AttributeInfo[], PreparedStatement, String, boolean, BitSet)}, before conversion. For the slow query log.
+    */
+   private static Object[] parameterValues(final Object target, final Introspected introspected, final AttributeInfo[] fcInfos, @Nullable final BitSet excludedColumns, final boolean withIds)
+   {
+      final AttributeInfo[] parameterFcInfos = parameterFcInfos(introspected, fcInfos, excludedColumns, withIds);
+      final Object[] values = new Object[parameterFcInfos.length];
+      for (int i = 0; i < values.length; i++) {
+         try {
+            values[i] = parameterFcInfos[i].getValue(target);
+         }
+         catch (IllegalAccessException | InvocationTargetException e) {
+            values[i] = e;
+         }
       }
-      return parameterTypes;
+      return values;
    }
 }
@@ -0,0 +1,175 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.EnumType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.*;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * The SQL types of the parameters of a statement as needed by {@link PreparedStatement#setObject(int, Object, int)}. {@link PreparedStatement#getParameterMetaData()} is a server round trip or at least a costly driver call with some databases, so the types are cached by SQL.
+ * <p>
+ * With {@link q2o#setDeriveParameterTypes(boolean)} the types of insert and update statements are derived from the entity's {@link AttributeInfo}s without asking the driver at all. Only if an attribute's type has no obvious SQL type the driver is asked.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class ParameterTypes {
+
+   private static final BoundedCache<String, int[]> parameterTypesCache = BoundedCache.create("ParameterTypes.parameterTypesCache");
+   private static final Map<Class<?>, Integer> sqlTypes = new HashMap<>();
+   private static final int UNKNOWN = Integer.MIN_VALUE;
+
+   static {
+      sqlTypes.put(String.class, Types.VARCHAR);
+      sqlTypes.put(Integer.class, Types.INTEGER);
+      sqlTypes.put(int.class, Types.INTEGER);
+      sqlTypes.put(Long.class, Types.BIGINT);
+      sqlTypes.put(long.class, Types.BIGINT);
+      sqlTypes.put(Short.class, Types.SMALLINT);
+      sqlTypes.put(short.class, Types.SMALLINT);
+      sqlTypes.put(Byte.class, Types.TINYINT);
+      sqlTypes.put(byte.class, Types.TINYINT);
+      sqlTypes.put(Boolean.class, Types.BOOLEAN);
+      sqlTypes.put(boolean.class, Types.BOOLEAN);
+      sqlTypes.put(Double.class, Types.DOUBLE);
+      sqlTypes.put(double.class, Types.DOUBLE);
+      sqlTypes.put(Float.class, Types.REAL);
+      sqlTypes.put(float.class, Types.REAL);
+      sqlTypes.put(BigDecimal.class, Types.DECIMAL);
+      // Converted to BigDecimal by FieldValueToDatabaseType
+      sqlTypes.put(BigInteger.class, Types.DECIMAL);
+      sqlTypes.put(Timestamp.class, Types.TIMESTAMP);
+      sqlTypes.put(java.util.Date.class, Types.TIMESTAMP);
+      sqlTypes.put(java.sql.Date.class, Types.DATE);
+      sqlTypes.put(Time.class, Types.TIME);
+      sqlTypes.put(byte[].class, Types.VARBINARY);
+      sqlTypes.put(Blob.class, Types.BLOB);
+      sqlTypes.put(Clob.class, Types.CLOB);
+   }
+
+   private ParameterTypes() {
+   }
+
+   /**
+    * @param sql The SQL stmt was prepared with. null if unknown, then the types are not cached.
+    */
+   static int[] of(final PreparedStatement stmt, @Nullable final String sql) throws SQLException
+   {
+      if (sql == null) {
+         return fromMetaData(stmt);
+      }
+      int[] parameterTypes = parameterTypesCache.get(sql);
+      if (parameterTypes == null) {
+         parameterTypes = fromMetaData(stmt);
+         parameterTypesCache.put(sql, parameterTypes);
+      }
+      return parameterTypes;
+   }
+
+   /**
+    * @param parameterFcInfos The attributes bound to the parameters of stmt in parameter order. Only evaluated if the types are derived and not already cached.
+    */
+   static int[] of(final PreparedStatement stmt, final String sql, final Supplier<AttributeInfo[]> parameterFcInfos) throws SQLException
+   {
+      if (!q2o.isDeriveParameterTypes()) {
+         return of(stmt, sql);
+      }
+      return derived(stmt, sql, parameterFcInfos);
+   }
+
+   /**
+    * Derives the types from the attributes regardless of {@link q2o#isDeriveParameterTypes()}. For parameters with unambiguous types like ids.
+    */
+   static int[] derived(final PreparedStatement stmt, final String sql, final Supplier<AttributeInfo[]> parameterFcInfos) throws SQLException
+   {
+      int[] parameterTypes = parameterTypesCache.get(sql);
+      if (parameterTypes == null) {
+         parameterTypes = fromAttributes(parameterFcInfos.get());
+         if (parameterTypes == null) {
+            parameterTypes = fromMetaData(stmt);
+         }
+         parameterTypesCache.put(sql, parameterTypes);
+      }
+      return parameterTypes;
+   }
+
+   static void clearCache()
+   {
+      parameterTypesCache.clear();
+   }
+
+   private static int[] fromMetaData(final PreparedStatement stmt) throws SQLException
+   {
+      final ParameterMetaData metaData = stmt.getParameterMetaData();
+      final int parameterCount = metaData.getParameterCount();
+      final int[] parameterTypes = new int[parameterCount];
+      for (int parameterIndex = 1; parameterIndex <= parameterCount; parameterIndex++) {
+         parameterTypes[parameterIndex - 1] = metaData.getParameterType(parameterIndex);
+      }
+      return parameterTypes;
+   }
+
+   /**
+    * @return null if any of the types can not be derived.
+    */
+   @Nullable
+   static int[] fromAttributes(final AttributeInfo[] fcInfos)
+   {
+      final int[] parameterTypes = new int[fcInfos.length];
+      for (int i = 0; i < fcInfos.length; i++) {
+         final int sqlType = sqlTypeOf(fcInfos[i]);
+         if (sqlType == UNKNOWN) {
+            return null;
+         }
+         parameterTypes[i] = sqlType;
+      }
+      return parameterTypes;
+   }
+
+   /**
+    * The type of the value {@link FieldValueToDatabaseType} hands over to the driver.
+    */
+   private static int sqlTypeOf(final AttributeInfo fcInfo)
+   {
+      if (fcInfo == null || fcInfo.isSelfJoinField()) {
+         return UNKNOWN;
+      }
+      final Class<?> type;
+      if (fcInfo.getConverter() != null) {
+         type = databaseColumnType(fcInfo.getConverter());
+      }
+      else if (fcInfo.isEnumerated()) {
+         return fcInfo.getEnumType() == EnumType.ORDINAL ? Types.INTEGER : Types.VARCHAR;
+      }
+      else {
+         type = fcInfo.getType();
+      }
+      final Integer sqlType = type != null ? sqlTypes.get(type) : null;
+      return sqlType != null ? sqlType : UNKNOWN;
+   }
+
+   /**
+    * @return Y of AttributeConverter&lt;X, Y&gt; or null if not resolvable.
+    */
+   @Nullable
+   private static Class<?> databaseColumnType(final AttributeConverter<?, ?> converter)
+   {
+      for (Class<?> c = converter.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+         for (final Type type : c.getGenericInterfaces()) {
+            if (type instanceof ParameterizedType && ((ParameterizedType) type).getRawType() == AttributeConverter.class) {
+               final Type databaseColumnType = ((ParameterizedType) type).getActualTypeArguments()[1];
+               return databaseColumnType instanceof Class ? (Class<?>) databaseColumnType : null;
+            }
+         }
+      }
+      return null;
+   }
+}
@@ -0,0 +1,55 @@
+package com.zaxxer.q2o;
+
+/**
+ * Outcome of warming up one entity class with {@link q2o#preload(Class[])}.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public final class PreloadResult {
+
+   private final Class<?> entityClass;
+   private final long nanos;
+   private final Throwable failure;
+
+   PreloadResult(final Class<?> entityClass, final long nanos, final Throwable failure) {
+      this.entityClass = entityClass;
+      this.nanos = nanos;
+      this.failure = failure;
+   }
+
+   public Class<?> getEntityClass() {
+      return entityClass;
+   }
+
+   /**
+    * @return Time spent introspecting the class and building its statements.
+    */
+   public long getNanos() {
+      return nanos;
+   }
+
+   public double getMillis() {
+      return nanos / 1_000_000d;
+   }
+
+   /**
+    * @return Why the class could not be warmed up, e. g. because it is no valid entity. null on success.
+    */
+   public Throwable getFailure() {
+      return failure;
+   }
+
+   public boolean isSuccess() {
+      return failure == null;
+   }
+
+   @Override
+   public String toString() {
+      return "PreloadResult{" +
+         "entityClass=" + entityClass.getName() +
+         ", millis=" + getMillis() +
+         (failure != null ? ", failure=" + failure : "") +
+         '}';
+   }
+}
@@ -0,0 +1,167 @@
+package com.zaxxer.q2o;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Introspects entity classes in parallel and builds their standard statements, so the first requests do not pay for it.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class Preloader {
+
+   private static final Logger logger = LoggerFactory.getLogger(Preloader.class);
+
+   private Preloader() {
+   }
+
+   static List<PreloadResult> preload(final Collection<Class<?>> entityClasses) {
+      final long start = System.nanoTime();
+      final List<Callable<PreloadResult>> tasks = new ArrayList<>(entityClasses.size());
+      for (final Class<?> entityClass : entityClasses) {
+         tasks.add(() -> preload(entityClass));
+      }
+      final List<PreloadResult> results = new ArrayList<>(tasks.size());
+      if (tasks.isEmpty()) {
+         return results;
+      }
+      final ForkJoinPool pool = new ForkJoinPool(Math.min(tasks.size(), Runtime.getRuntime().availableProcessors()));
+      try {
+         for (final Future<PreloadResult> future : pool.invokeAll(tasks)) {
+            results.add(future.get());
+         }
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new RuntimeException(e);
+      }
+      catch (ExecutionException e) {
+         // preload(Class) catches all failures.
+         throw new RuntimeException(e.getCause());
+      }
+      finally {
+         pool.shutdown();
+      }
+
+      int failures = 0;
+      for (final PreloadResult result : results) {
+         if (!result.isSuccess()) {
+            failures++;
+            logger.warn("Preloading {} failed", result.getEntityClass().getName(), result.getFailure());
+         }
+      }
+      logger.info("Preloaded {} entity classes in {} ms, {} failed", results.size(), (System.nanoTime() - start) / 1_000_000, failures);
+      return results;
+   }
+
+   private static PreloadResult preload(final Class<?> entityClass) {
+      final long start = System.nanoTime();
+      try {
+         final Introspected introspected = Introspected.getInstance(entityClass);
+         OrmBase.getColumnsCsv(entityClass);
+         OrmReader.generateSelectFromWhereClause(entityClass, null, true);
+         if (introspected.getIdColumnNames().length > 0) {
+            OrmReader.generateSelectById(entityClass);
+         }
+         OrmWriter.preload(introspected);
+         return new PreloadResult(entityClass, System.nanoTime() - start, null);
+      }
+      catch (RuntimeException | Error e) {
+         return new PreloadResult(entityClass, System.nanoTime() - start, e);
+      }
+   }
+
+   /**
+    * @return The classes annotated with {@link Entity} or {@link Table} in the packages and their subpackages, found in directories and jar files of the context class loader. Not initialized.
+    */
+   static List<Class<?>> scan(final String... packageNames) {
+      ClassLoader loader = Thread.currentThread().getContextClassLoader();
+      if (loader == null) {
+         loader = Preloader.class.getClassLoader();
+      }
+      final Set<String> classNames = new TreeSet<>();
+      try {
+         for (final String packageName : packageNames) {
+            final String path = packageName.replace('.', '/');
+            for (final URL url : Collections.list(loader.getResources(path))) {
+               if ("file".equals(url.getProtocol())) {
+                  scanDirectory(new File(url.toURI()), packageName, classNames);
+               }
+               else if ("jar".equals(url.getProtocol())) {
+                  scanJar(((JarURLConnection) url.openConnection()).getJarFile(), path, classNames);
+               }
+               else {
+                  logger.warn("Can not scan {}", url);
+               }
+            }
+         }
+      }
+      catch (IOException e) {
+         throw new UncheckedIOException(e);
+      }
+      catch (URISyntaxException e) {
+         throw new IllegalArgumentException(e);
+      }
+
+      final List<Class<?>> entityClasses = new ArrayList<>();
+      for (final String className : classNames) {
+         try {
+            final Class<?> clazz = Class.forName(className, false, loader);
+            if (clazz.isAnnotationPresent(Entity.class) || clazz.isAnnotationPresent(Table.class)) {
+               entityClasses.add(clazz);
+            }
+         }
+         catch (ClassNotFoundException | LinkageError e) {
+            logger.debug("Skipping {}: {}", className, e.toString());
+         }
+      }
+      return entityClasses;
+   }
+
+   private static void scanDirectory(final File directory, final String packageName, final Set<String> classNames) {
+      final File[] files = directory.listFiles();
+      if (files == null) {
+         return;
+      }
+      for (final File file : files) {
+         final String name = file.getName();
+         if (file.isDirectory()) {
+            scanDirectory(file, packageName + '.' + name, classNames);
+         }
+         else if (isClassFile(name)) {
+            classNames.add(packageName + '.' + name.substring(0, name.length() - ".class".length()));
+         }
+      }
+   }
+
+   private static void scanJar(final JarFile jar, final String path, final Set<String> classNames) {
+      final String prefix = path + '/';
+      for (final JarEntry entry : Collections.list(jar.entries())) {
+         final String name = entry.getName();
+         if (name.startsWith(prefix) && isClassFile(name)) {
+            classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+         }
+      }
+   }
+
+   private static boolean isClassFile(final String name) {
+      return name.endsWith(".class") && !name.equals("package-info.class") && !name.endsWith("/package-info.class") && !name.equals("module-info.class");
+   }
+}
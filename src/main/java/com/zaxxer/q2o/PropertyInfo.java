@@ -17,9 +17,16 @@ class PropertyInfo extends AttributeInfo {
 
    private PropertyDescriptor propertyDescriptor;
    private Method readMethod;
+   /**
+    * null if the property can only be accessed by reflection.
+    */
+   private AttributeAccessor accessor;
 
    PropertyInfo(Field field, Class clazz) {
       super(field, clazz);
+      if (readMethod != null) {
+         accessor = AttributeAccessor.forProperty(readMethod, propertyDescriptor.getWriteMethod());
+      }
    }
 
    protected void extractFieldName(final Field field) {
@@ -106,19 +113,53 @@ class PropertyInfo extends AttributeInfo {
     */
    Object getValue(final Object target) throws IllegalAccessException, InvocationTargetException {
       if (!isJoinColumn) {
-         return readMethod.invoke(target);
+         return get(target);
       }
       else {
-         Object obj = readMethod.invoke(target);
+         Object obj = get(target);
          return idValueFromEntity(obj);
       }
    }
 
+   @Override
+   AttributeAccessor getPlainAccessor() {
+      return isJoinColumn ? null : accessor;
+   }
+
+   private Object get(final Object target) throws IllegalAccessException, InvocationTargetException {
+      if (accessor == null || target == null) {
+         return readMethod.invoke(target);
+      }
+      try {
+         return accessor.get(target);
+      }
+      catch (Throwable e) {
+         // As Method.invoke() does.
+         throw new InvocationTargetException(e);
+      }
+   }
+
+   /**
+    * Values the accessor does not accept are left to {@link Method#invoke(Object, Object...)}, which applies widening conversions or throws an IllegalArgumentException.
+    */
+   private void set(final Object target, final Object value) throws IllegalAccessException, InvocationTargetException {
+      if (accessor == null || target == null || !accessor.hasSetter() || !accessor.accepts(value)) {
+         propertyDescriptor.getWriteMethod().invoke(target, value);
+         return;
+      }
+      try {
+         accessor.set(target, value);
+      }
+      catch (Throwable e) {
+         throw new InvocationTargetException(e);
+      }
+   }
+
    public void setValue(final Object target, final Object value) throws IllegalAccessException {
       try {
          if (!isJoinColumn) {
             try {
-               propertyDescriptor.getWriteMethod().invoke(target, value);
+               set(target, value);
             }
             catch (Exception e) {
                throw new RuntimeException("getWriteMethod().invoke() failed: target=" + target + " value=" + value + "\nPropertyInfo=" + this.toString(), e);
@@ -134,7 +175,7 @@ class PropertyInfo extends AttributeInfo {
             else {
                obj = value;
             }
-            propertyDescriptor.getWriteMethod().invoke(target, obj);
+            set(target, obj);
          }
       }
       catch (InvocationTargetException | InstantiationException e) {
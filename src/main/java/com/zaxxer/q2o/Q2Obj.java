@@ -216,13 +216,7 @@ public final class Q2Obj {
       if (includedColumns.length == 0) {
          throw new RuntimeException("Specify columns to include.");
       }
-      Introspected introspected = Introspected.getInstance(object.getClass());
-      String[] updatableColumns = introspected.getUpdatableColumns();
-      HashSet<String> excludedCols = new HashSet<>(Arrays.asList(updatableColumns));
-      for (final String includedColumn : includedColumns) {
-         excludedCols.remove(includedColumn);
-      }
-      return OrmWriter.updateObject(connection, object, excludedCols);
+      return OrmWriter.updateObjectColumns(connection, object, new HashSet<>(Arrays.asList(includedColumns)));
    }
 
    /**
@@ -381,7 +375,7 @@ public final class Q2Obj {
    public static <T> T fromSelect(Class<T> clazz, String select, Object... args) {
       return SqlClosure.sqlExecute(connection -> {
          PreparedStatement stmnt = connection.prepareStatement(select);
-         return fromStatement(stmnt, clazz, args);
+         return OrmReader.statementToObject(stmnt, select, clazz, args);
       });
    }
 
@@ -390,7 +384,7 @@ public final class Q2Obj {
     */
    public static <T> T fromSelect(Connection connection, Class<T> clazz, String select, Object... args) throws SQLException {
       PreparedStatement stmnt = connection.prepareStatement(select);
-      return fromStatement(stmnt, clazz, args);
+      return OrmReader.statementToObject(stmnt, select, clazz, args);
    }
 
    public static int deleteByWhereClause(Class<?> clazz, String whereClause, Object... args) {
@@ -0,0 +1,137 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Like {@link Q2Obj}, {@link Q2ObjList} and {@link Q2Sql}, but the operations run on another thread and return a {@link CompletableFuture}. To run independent queries concurrently, e. g. the reads of an aggregating request:
+ * <pre>
+ * CompletableFuture&lt;Customer&gt; customer = Q2ObjAsync.byId(Customer.class, customerId);
+ * CompletableFuture&lt;List&lt;Order&gt;&gt; orders = Q2ObjAsync.listFromClause(Order.class, "customer_id = ?", customerId);
+ * CompletableFuture.allOf(customer, orders).join();
+ * </pre>
+ * <p>
+ * Each operation gets its own connection, and with a transaction manager its own transaction, as a call of the blocking methods on the executing thread would. So the operations can not take part in a transaction of the calling thread, and calling them within one throws an {@link IllegalStateException}. To run several statements in one transaction use {@link #execute(SqlFunction)}.
+ * </p><p>
+ * The executor is set with {@link q2o#setAsyncExecution(int, boolean)} or {@link q2o#setAsyncExecutor(java.util.concurrent.Executor)}. Its concurrency should not exceed the size of the connection pool.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public final class Q2ObjAsync {
+
+   private Q2ObjAsync() {
+   }
+
+   /**
+    * Runs function with a connection of its own, in a transaction of its own if q2o was initialized with a transaction manager.
+    *
+    * @see SqlClosure#sqlExecute(SqlFunction)
+    */
+   public static <T> CompletableFuture<T> execute(SqlFunction<T> function) {
+      return supply(() -> SqlClosure.sqlExecute(function));
+   }
+
+   /**
+    * @see Q2Obj#byId(Class, Object...)
+    */
+   public static <T> CompletableFuture<T> byId(Class<T> type, Object... ids) {
+      return supply(() -> Q2Obj.byId(type, ids));
+   }
+
+   /**
+    * @see Q2Obj#fromClause(Class, String, Object...)
+    */
+   public static <T> CompletableFuture<T> fromClause(Class<T> type, @Nullable String clause, Object... args) {
+      return supply(() -> Q2Obj.fromClause(type, clause, args));
+   }
+
+   /**
+    * @see Q2ObjList#fromClause(Class, String, Object...)
+    */
+   public static <T> CompletableFuture<List<T>> listFromClause(Class<T> clazz, String clause, Object... args) {
+      return supply(() -> Q2ObjList.fromClause(clazz, clause, args));
+   }
+
+   /**
+    * @see Q2ObjList#fromRawClause(Class, String, Object...)
+    */
+   public static <T> CompletableFuture<List<T>> listFromRawClause(Class<T> clazz, String clause, Object... args) {
+      return supply(() -> Q2ObjList.fromRawClause(clazz, clause, args));
+   }
+
+   /**
+    * @see Q2ObjList#fromSelect(Class, String, Object...)
+    */
+   public static <T> CompletableFuture<List<T>> listFromSelect(Class<T> clazz, String select, Object... args) {
+      return supply(() -> Q2ObjList.fromSelect(clazz, select, args));
+   }
+
+   /**
+    * @see Q2Obj#countFromClause(Class, String, Object...)
+    */
+   public static <T> CompletableFuture<Integer> countFromClause(Class<T> clazz, String clause, Object... args) {
+      return supply(() -> Q2Obj.countFromClause(clazz, clause, args));
+   }
+
+   /**
+    * @see Q2Sql#numberFromSql(String, Object...)
+    */
+   public static CompletableFuture<Number> numberFromSql(String sql, Object... args) {
+      return supply(() -> Q2Sql.numberFromSql(sql, args));
+   }
+
+   /**
+    * @see Q2Obj#insert(Object)
+    */
+   public static <T> CompletableFuture<T> insert(T object) {
+      return supply(() -> Q2Obj.insert(object));
+   }
+
+   /**
+    * @see Q2Obj#update(Object)
+    */
+   public static <T> CompletableFuture<T> update(T object) {
+      return supply(() -> Q2Obj.update(object));
+   }
+
+   /**
+    * @see Q2Obj#delete(Object)
+    */
+   public static <T> CompletableFuture<Integer> delete(T object) {
+      return supply(() -> Q2Obj.delete(object));
+   }
+
+   /**
+    * @see Q2Obj#deleteById(Class, Object...)
+    */
+   public static <T> CompletableFuture<Integer> deleteById(Class<T> clazz, Object... args) {
+      return supply(() -> Q2Obj.deleteById(clazz, args));
+   }
+
+   /**
+    * @see Q2Sql#executeUpdate(String, Object...)
+    */
+   public static CompletableFuture<Integer> executeUpdate(String sql, Object... args) {
+      return supply(() -> Q2Sql.executeUpdate(sql, args));
+   }
+
+   private static <T> CompletableFuture<T> supply(final Supplier<T> operation) {
+      if (isInTransaction()) {
+         throw new IllegalStateException("Asynchronous operations can not take part in the transaction of the calling thread");
+      }
+      return CompletableFuture.supplyAsync(operation, AsyncExecutor.get());
+   }
+
+   private static boolean isInTransaction() {
+      if (SqlClosure.isSpringTxAware) {
+         return TransactionSynchronizationManager.isActualTransactionActive();
+      }
+      return TransactionHelper.getActiveTransaction() != null;
+   }
+}
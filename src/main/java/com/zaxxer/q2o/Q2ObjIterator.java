@@ -0,0 +1,127 @@
+package com.zaxxer.q2o;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Maps the rows of an open cursor lazily, one row per call to {@link #next()}. So only the current row is held on the heap, regardless of the size of the result.
+ * <p>
+ * <b>Must be closed</b>, best with try-with-resources. Closes the ResultSet and the PreparedStatement and, if the iterator was obtained by a method not taking a connection, releases the connection. It is closed automatically when the last row was read.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ * @see Q2ObjList#iterateFromSelect(Class, String, Object...)
+ * @see Q2ObjList#streamFromClause(Class, String, Object...)
+ */
+public final class Q2ObjIterator<T> implements Iterator<T>, AutoCloseable {
+
+   private static final Logger logger = LoggerFactory.getLogger(Q2ObjIterator.class);
+
+   private final PreparedStatement stmt;
+   private final ResultSet resultSet;
+   private final Class<T> clazz;
+   private final ResultSetToObjectProcessor<T> processor;
+   /**
+    * Releases the connection, if not provided by the caller.
+    */
+   private Runnable onClose;
+   private boolean hasRow;
+   private boolean isPositioned;
+   private boolean closed;
+
+   Q2ObjIterator(final PreparedStatement stmt, final ResultSet resultSet, final String sql, final Class<T> clazz) {
+      this.stmt = stmt;
+      this.resultSet = resultSet;
+      this.clazz = clazz;
+      this.processor = new ResultSetToObjectProcessor<>(resultSet, Collections.emptySet(), sql);
+   }
+
+   void onClose(final Runnable onClose) {
+      this.onClose = onClose;
+   }
+
+   @Override
+   public boolean hasNext() {
+      if (closed) {
+         return false;
+      }
+      if (!isPositioned) {
+         try {
+            hasRow = resultSet.next();
+         }
+         catch (SQLException e) {
+            close();
+            throw new RuntimeException(e);
+         }
+         isPositioned = true;
+         if (!hasRow) {
+            close();
+         }
+      }
+      return hasRow;
+   }
+
+   @Override
+   public T next() {
+      if (!hasNext()) {
+         throw new NoSuchElementException();
+      }
+      isPositioned = false;
+      try {
+         return processor.processRow(clazz);
+      }
+      catch (SQLException e) {
+         close();
+         throw new RuntimeException(e);
+      }
+      catch (RuntimeException e) {
+         close();
+         throw e;
+      }
+   }
+
+   /**
+    * @return A sequential stream over the remaining rows. Closing the stream closes this iterator.
+    */
+   public Stream<T> stream() {
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+         .onClose(this::close);
+   }
+
+   /**
+    * Idempotent.
+    */
+   @Override
+   public void close() {
+      if (closed) {
+         return;
+      }
+      closed = true;
+      try {
+         SqlClosure.quietClose(resultSet);
+         SqlClosure.quietClose(stmt);
+      }
+      finally {
+         if (onClose != null) {
+            try {
+               onClose.run();
+            }
+            catch (RuntimeException e) {
+               logger.error("", e);
+            }
+         }
+      }
+   }
+}
@@ -5,6 +5,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Note the differences between methods taking a connection, PreparedStatement or ResultSet and those that do not. See {@link Q2Obj}.
@@ -95,7 +96,7 @@ public class Q2ObjList {
    public static <T> List<T> fromSelect(Class<T> clazz, String select, Object... args) {
       return SqlClosure.sqlExecute(connection -> {
          PreparedStatement stmnt = connection.prepareStatement(select);
-         return fromStatement(stmnt, clazz, args);
+         return OrmReader.statementToList(stmnt, select, clazz, args);
       });
    }
 
@@ -104,7 +105,68 @@ public class Q2ObjList {
     */
    public static <T> List<T> fromSelect(Connection connection, Class<T> clazz, String select, Object... args) throws SQLException {
       PreparedStatement stmnt = connection.prepareStatement(select);
-      return fromStatement(stmnt, clazz, args);
+      return OrmReader.statementToList(stmnt, select, clazz, args);
+   }
+
+   /**
+    * Like {@link #fromClause(Class, String, Object...)} but the objects are mapped lazily while the stream is consumed. So only the current row is held on the heap.
+    * <p>
+    * <b>The stream must be closed</b>, best with try-with-resources. Otherwise the connection is not released before the stream is read to its end.
+    * </p>
+    */
+   public static <T> Stream<T> streamFromClause(Class<T> clazz, String clause, Object... args) {
+      return streamFromClause(clazz, 0, clause, args);
+   }
+
+   /**
+    * See {@link #streamFromClause(Class, String, Object...)}.
+    *
+    * @param fetchSize The number of rows the driver fetches from the database per round trip. 0 to keep the driver's default. Note that the PostgreSQL driver uses a cursor only if auto-commit is off, e. g. within a transaction, otherwise it reads the whole result.
+    */
+   public static <T> Stream<T> streamFromClause(Class<T> clazz, int fetchSize, String clause, Object... args) {
+      return SqlClosure.sqlExecuteOpen(c -> OrmReader.iteratorFromClause(c, clazz, fetchSize, clause, args)).stream();
+   }
+
+   /**
+    * See {@link #streamFromClause(Class, String, Object...)}. Closing the stream does not close the connection.
+    */
+   public static <T> Stream<T> streamFromClause(Connection connection, Class<T> clazz, String clause, Object... args) throws SQLException {
+      return streamFromClause(connection, clazz, 0, clause, args);
+   }
+
+   /**
+    * See {@link #streamFromClause(Class, int, String, Object...)}. Closing the stream does not close the connection.
+    */
+   public static <T> Stream<T> streamFromClause(Connection connection, Class<T> clazz, int fetchSize, String clause, Object... args) throws SQLException {
+      return OrmReader.iteratorFromClause(connection, clazz, fetchSize, clause, args).stream();
+   }
+
+   /**
+    * Like {@link #fromSelect(Class, String, Object...)} but the objects are mapped lazily while iterating. <b>The iterator must be closed</b>, best with try-with-resources. It is closed automatically when the last row was read.
+    */
+   public static <T> Q2ObjIterator<T> iterateFromSelect(Class<T> clazz, String select, Object... args) {
+      return iterateFromSelect(clazz, 0, select, args);
+   }
+
+   /**
+    * See {@link #iterateFromSelect(Class, String, Object...)} and {@link #streamFromClause(Class, int, String, Object...)} for fetchSize.
+    */
+   public static <T> Q2ObjIterator<T> iterateFromSelect(Class<T> clazz, int fetchSize, String select, Object... args) {
+      return SqlClosure.sqlExecuteOpen(c -> OrmReader.iteratorFromSelect(c, clazz, fetchSize, select, args));
+   }
+
+   /**
+    * See {@link #iterateFromSelect(Class, String, Object...)}. Closing the iterator does not close the connection.
+    */
+   public static <T> Q2ObjIterator<T> iterateFromSelect(Connection connection, Class<T> clazz, String select, Object... args) throws SQLException {
+      return iterateFromSelect(connection, clazz, 0, select, args);
+   }
+
+   /**
+    * See {@link #iterateFromSelect(Class, int, String, Object...)}. Closing the iterator does not close the connection.
+    */
+   public static <T> Q2ObjIterator<T> iterateFromSelect(Connection connection, Class<T> clazz, int fetchSize, String select, Object... args) throws SQLException {
+      return OrmReader.iteratorFromSelect(connection, clazz, fetchSize, select, args);
    }
 
    public static <T> void insertBatched(Iterable<T> iterable) {
@@ -114,6 +176,53 @@ public class Q2ObjList {
       });
    }
 
+   /**
+    * Insert a collection of objects with PostgreSQL's COPY ... FROM STDIN, which is considerably faster than batched inserts with large collections. With other databases the objects are inserted like with {@link #insertBatched(Connection, Iterable)}.
+    * <p>
+    * Generated ids are not set on the objects.
+    * </p>
+    *
+    * @param connection a SQL connection
+    * @param iterable a list (or other {@link Iterable} collection) of annotated objects to insert
+    * @param <T> the class template
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <T> void insertCopy(Connection connection, Iterable<T> iterable) throws SQLException {
+      CopyInserter.insert(connection, iterable);
+   }
+
+   /**
+    * @see #insertCopy(Connection, Iterable)
+    */
+   public static <T> void insertCopy(Iterable<T> iterable) {
+      SqlClosure.sqlExecute(connection -> {
+         CopyInserter.insert(connection, iterable);
+         return null;
+      });
+   }
+
+   /**
+    * Insert a large number of objects with several threads in parallel, each with its own connection of the DataSource q2o was initialized with. Within each thread the objects are inserted like with {@link #insertBatched(Iterable)}. The objects are read by the calling thread.
+    * <p>
+    * Not transactional as a whole: Each thread commits every commitInterval rows. If a thread fails, the load is stopped and rows already committed stay in the database.
+    * </p>
+    *
+    * @param iterable the objects to insert. Must be of the same class.
+    * @param threads number of threads and connections
+    * @param commitInterval number of rows after which a thread commits
+    * @return Number of inserted rows and throughput
+    */
+   public static <T> BulkLoadResult insertParallel(Iterable<T> iterable, int threads, int commitInterval) {
+      return new BulkLoader<T>(SqlClosure.getDefaultDataSource(), threads, commitInterval).load(iterable.iterator());
+   }
+
+   /**
+    * @see #insertParallel(Iterable, int, int)
+    */
+   public static <T> BulkLoadResult insertParallel(Stream<T> stream, int threads, int commitInterval) {
+      return new BulkLoader<T>(SqlClosure.getDefaultDataSource(), threads, commitInterval).load(stream.iterator());
+   }
+
    /**
     * Insert a collection of objects in a non-batched manner (i.e. using iteration and individual INSERTs).
     *
@@ -145,6 +254,44 @@ public class Q2ObjList {
       OrmWriter.insertListBatched(connection, iterable);
    }
 
+   /**
+    * Update a collection of objects using JDBC batching. The ids must be set.
+    *
+    * @param connection a SQL connection
+    * @param iterable a list (or other {@link Iterable} collection) of annotated objects to update
+    * @param <T> the class template
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <T> void updateBatched(Connection connection, Iterable<T> iterable) throws SQLException {
+      OrmWriter.updateListBatched(connection, iterable);
+   }
+
+   /**
+    * @see #updateBatched(Connection, Iterable)
+    */
+   public static <T> void updateBatched(Iterable<T> iterable) {
+      SqlClosure.sqlExecute(connection -> {
+         OrmWriter.updateListBatched(connection, iterable);
+         return null;
+      });
+   }
+
+   /**
+    * Delete a collection of objects by their ids. The ids are given as parameters of chunked statements, which are reused for any number of objects.
+    *
+    * @return number of deleted rows
+    */
+   public static <T> int deleteBatched(Connection connection, Class<T> clazz, Iterable<T> iterable) throws SQLException {
+      return OrmWriter.deleteObjects(connection, clazz, iterable);
+   }
+
+   /**
+    * @see #deleteBatched(Connection, Class, Iterable)
+    */
+   public static <T> int deleteBatched(Class<T> clazz, Iterable<T> iterable) {
+      return SqlClosure.sqlExecute(connection -> OrmWriter.deleteObjects(connection, clazz, iterable));
+   }
+
    public static int deleteByWhereClause(Class<?> clazz, String whereClause, Object... args) {
       return SqlClosure.sqlExecute(connection -> OrmWriter.deleteByWhereClause(connection, clazz, whereClause, args));
    }
@@ -158,7 +305,7 @@ public class Q2ObjList {
    }
 
    /**
-    * Deletes all objects by its id(s) in a single bulk operation.
+    * Deletes all objects by its id(s) in bulk operations. See {@link #deleteBatched(Connection, Class, Iterable)}.
     */
    public static <T> int delete(Connection connection, Class<T> clazz, List<T> objects) throws SQLException {
       return OrmWriter.deleteObjects(connection, clazz, objects);
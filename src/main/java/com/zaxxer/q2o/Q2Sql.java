@@ -134,7 +134,7 @@ public class Q2Sql {
     */
    public static ResultSet executeQuery(Connection connection, String sql, Object... args) throws SQLException
    {
-      return OrmReader.statementToResultSet(connection.prepareStatement(sql), args);
+      return OrmReader.statementToResultSet(connection.prepareStatement(sql), sql, args);
    }
 
    public static ResultSet executeQuery(String sql, Object... args) {
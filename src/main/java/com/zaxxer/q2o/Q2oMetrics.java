@@ -0,0 +1,56 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Listener for timings of q2o's operations, e. g. to find which entities and queries dominate latency. Set with {@link q2o#setMetrics(Q2oMetrics)}. Without one set q2o does not even read the clock.
+ * <p>
+ * Called on the thread executing the operation, so implementations must be thread-safe and fast. Exceptions thrown are logged and ignored. {@link AggregatingMetrics} sums up the timings and exposes them via JMX, to be bound to a metrics library.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public interface Q2oMetrics {
+
+   /** Operation of connection acquisitions, which are not attributed to an entity class. */
+   String CONNECTION = "connection";
+   /** {@link Q2Obj#byId(Class, Object...)} */
+   String BY_ID = "byId";
+   /** {@link Q2ObjList#fromClause(Class, String, Object...)} and {@link Q2ObjList#fromRawClause(Class, String, Object...)} */
+   String FROM_CLAUSE = "fromClause";
+   /** Reading into a single entity, e. g. {@link Q2Obj#fromClause(Class, String, Object...)} or {@link Q2Obj#refresh(Object)}. */
+   String OBJECT = "object";
+   /** Lists read from statements prepared by the caller, e. g. {@link Q2ObjList#fromSelect(Class, String, Object...)}. */
+   String LIST = "list";
+   String INSERT = "insert";
+   String UPDATE = "update";
+   /** Deletes by id. */
+   String DELETE = "delete";
+   String INSERT_BATCH = "insertBatch";
+   String UPDATE_BATCH = "updateBatch";
+   /** {@link Q2ObjList#deleteBatched(Class, Iterable)} and {@link Q2ObjList#delete(Class, java.util.List)}. */
+   String DELETE_LIST = "deleteList";
+
+   enum Phase {
+      /** Getting a connection from the DataSource. */
+      CONNECTION,
+      /** Preparing the statement, with the statement cache possibly a lookup only. */
+      PREPARE,
+      /** Binding the parameters and executing the statement. */
+      EXECUTE,
+      /** Creating entities from the result set, including the driver's fetching of rows. */
+      MAPPING
+   }
+
+   /**
+    * @param entityClass null with {@link Phase#CONNECTION}.
+    * @param operation One of the constants of this interface.
+    */
+   void recordTime(Phase phase, @Nullable Class<?> entityClass, String operation, long nanos);
+
+   /**
+    * Number of rows read or written by an operation.
+    */
+   void recordRows(Class<?> entityClass, String operation, long rows);
+}
@@ -19,7 +19,12 @@ class ResultSetToObjectProcessor<T> {
     */
    private T target;
    private final Set<String> ignoredColumns;
+   /**
+    * The SQL the result set was produced by or null if unknown.
+    */
+   private final String sql;
    private ResultSetMetaData metaData;
+   private RowMappingPlan plan;
    private Introspected introspected;
    /**
     * scope is the currently processed row.
@@ -53,8 +58,16 @@ class ResultSetToObjectProcessor<T> {
     *                  JDBC.
     */
    ResultSetToObjectProcessor(final ResultSet resultSet, final Set<String> ignoredColumns) {
+      this(resultSet, ignoredColumns, null);
+   }
+
+   /**
+    * @param sql The SQL the result set was produced by. Allows to reuse the {@link RowMappingPlan} of previous executions.
+    */
+   ResultSetToObjectProcessor(final ResultSet resultSet, final Set<String> ignoredColumns, @Nullable final String sql) {
       this.resultSet = resultSet;
       this.ignoredColumns = ignoredColumns;
+      this.sql = sql;
    }
 
    T forTestOnly(final T target) throws SQLException {
@@ -62,8 +75,9 @@ class ResultSetToObjectProcessor<T> {
 
       metaData = resultSet.getMetaData();
       introspected = Introspected.getInstance(target.getClass());
+      plan = RowMappingPlan.of(sql, metaData, introspected, ignoredColumns);
       tableNameToEntitiesInCurrentRow = new HashMap<>();
-      tableNameToEntitiesInCurrentRow.putIfAbsent(introspected.getTableName().toUpperCase(), target);
+      tableNameToEntitiesInCurrentRow.putIfAbsent(plan.targetTableName, target);
       tableNameToEntities = new HashMap<>();
 
       // do ... while collides with usage within org.springframework.jdbc.core.RowMapper
@@ -74,7 +88,7 @@ class ResultSetToObjectProcessor<T> {
          tableNameToEntities = tableNameToEntitiesInCurrentRow;
          tableNameToEntitiesInCurrentRow = new HashMap<>();
       }
-      for (colIdx = metaData.getColumnCount(); colIdx > 0; colIdx--) {
+      for (colIdx = plan.columnCount; colIdx > 0; colIdx--) {
          processColumn(colIdx);
       }
 
@@ -105,11 +119,12 @@ class ResultSetToObjectProcessor<T> {
       this.target = target;
       metaData = resultSet.getMetaData();
       introspected = Introspected.getInstance(target.getClass());
+      plan = RowMappingPlan.of(sql, metaData, introspected, ignoredColumns);
       tableNameToEntitiesInCurrentRow = new HashMap<>();
-      tableNameToEntitiesInCurrentRow.putIfAbsent(introspected.getTableName().toUpperCase(), target);
+      tableNameToEntitiesInCurrentRow.putIfAbsent(plan.targetTableName, target);
       tableNameToEntities = new HashMap<>();
 
-      for (colIdx = metaData.getColumnCount(); colIdx > 0; colIdx--) {
+      for (colIdx = plan.columnCount; colIdx > 0; colIdx--) {
          processColumn(colIdx);
       }
 
@@ -118,77 +133,63 @@ class ResultSetToObjectProcessor<T> {
 
    List<T> process(final Class<T> targetClass) throws SQLException {
 
-      metaData = resultSet.getMetaData();
-      introspected = Introspected.getInstance(targetClass);
       targets = new ArrayList<>();
 
       do {
-         try {
-            target = targetClass.newInstance();
-            tableNameToEntitiesInCurrentRow = new HashMap<>();
-            tableNameToEntitiesInCurrentRow.put(introspected.getTableName().toUpperCase(), target);
-         }
-         catch (InstantiationException | IllegalAccessException e) {
-            throw new RuntimeException(e);
-         }
+         targets.add(processRow(targetClass));
+      } while (resultSet.next());
 
-         for (colIdx = metaData.getColumnCount(); colIdx > 0; colIdx--) {
-            processColumn(colIdx);
-         }
+      return targets;
+   }
 
-         targets.add(target);
-         currentRow++;
+   /**
+    * Maps the row the result set is currently positioned on. Does not move the cursor. For mapping rows one by one, e. g. when streaming.
+    *
+    * @return a new instance of targetClass
+    */
+   T processRow(final Class<T> targetClass) throws SQLException {
+      if (plan == null) {
+         metaData = resultSet.getMetaData();
+         introspected = Introspected.getInstance(targetClass);
+         plan = RowMappingPlan.of(sql, metaData, introspected, ignoredColumns);
+      }
+      target = targetClass.cast(introspected.newInstance());
+      tableNameToEntitiesInCurrentRow = new HashMap<>();
+      tableNameToEntitiesInCurrentRow.put(plan.targetTableName, target);
 
-      } while (resultSet.next());
+      for (colIdx = plan.columnCount; colIdx > 0; colIdx--) {
+         processColumn(colIdx);
+      }
 
-      return targets;
+      currentRow++;
+      return target;
    }
 
+   /**
+    * Column related information is taken from {@link #plan}.
+    */
    private void processColumn(final int colIdx) throws SQLException {
-      final String columnName = metaData.getColumnName(colIdx);
-      // To make names in ignoredColumns independend from database case sensitivity. Otherwise you have to write database dependent code.
-      if (OrmBase.isIgnoredColumn(ignoredColumns, columnName)) {
+      if (plan.isIgnored[colIdx]) {
          return;
       }
-      String tableName = null;
-      AttributeInfo fcInfo = null;
-      tableName = Optional.ofNullable(metaData.getTableName(colIdx)).orElse("");
-//      if (tableName.isEmpty() || tableName.equalsIgnoreCase(introspected.getTableName())) {
-//         fcInfo = !tableName.isEmpty()
-//            ? introspected.getFieldColumnInfo(tableName, columnName)
-//            : introspected.getFieldColumnInfo(columnName);
-//      }
-
-      if (!tableName.isEmpty()) {
-         fcInfo = introspected.getFieldColumnInfo(tableName, columnName);
-         if (fcInfo == null) {
-            // OneToOneTest.flattenedTableJoin()
-            fcInfo = introspected.getFieldColumnInfo(columnName);
-         }
-      }
-      else {
-         fcInfo = introspected.getFieldColumnInfo(columnName);
-      }
+      final AttributeInfo fcInfo = plan.fcInfos[colIdx];
 
-      Object columnValue = getObject(colIdx, fcInfo);
+      final RowMappingPlan.PrimitiveReader primitiveReader = plan.primitiveReaders[colIdx];
+      if (primitiveReader != null && readPrimitive(primitiveReader, colIdx)) {
+         return;
+      }
+      // SQL NULL of a primitive column is handled as before.
+      Object columnValue = primitiveReader != null ? null : getObject(colIdx, fcInfo);
 
-      // tableName is empty when aliases as in "SELECT (t.string_from_number + 1) as string_from_number " were used. See org.sansorm.QueryTest.testConverterLoad().
-      if (tableName.isEmpty() || tableName.equalsIgnoreCase(introspected.getTableName())) {
+      if (plan.isOfTargetTable[colIdx]) {
 
-         Object parent = tableNameToEntitiesInCurrentRow.computeIfAbsent(introspected.getTableName().toUpperCase(), tbl -> {
-            try {
-               return introspected.getTableTarget(introspected.getTableName());
-            }
-            catch (IllegalAccessException | InstantiationException e) {
-               throw new RuntimeException(e);
-            }
-         });
+         Object parent = targetOfCurrentRow();
          // If objectFromSelect() does more fields retrieve as are defined on the entity then fcInfo is null.
          if (fcInfo != null
             && (!fcInfo.isIdField || !fcInfo.getType().isPrimitive() || columnValue != null)) {
             // Do not call fcInfo.setValue() directly. AttributeInfo#setValue() does not apply type conversion (e. g. identity fields of type BigInteger to integer)!
             try {
-               Object typeCorrectedValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(fcInfo, columnValue, metaData, introspected, colIdx);
+               Object typeCorrectedValue = plan.conversions[colIdx].convert(columnValue);
                fcInfo.setValue(parent, typeCorrectedValue);
             }
             catch (IllegalAccessException e) {
@@ -197,10 +198,40 @@ class ResultSetToObjectProcessor<T> {
          }
       }
       else {
-         processColumnOfJoinedTable(columnName, columnValue, tableName);
+         processColumnOfJoinedTable(plan.columnNames[colIdx], columnValue, plan.tableNames[colIdx]);
+      }
+   }
+
+   /**
+    * @return false if the value was SQL NULL and not written.
+    */
+   private boolean readPrimitive(final RowMappingPlan.PrimitiveReader primitiveReader, final int colIdx) throws SQLException
+   {
+      try {
+         return primitiveReader.read(resultSet, colIdx, targetOfCurrentRow());
+      }
+      catch (SQLException | RuntimeException | Error e) {
+         throw e;
+      }
+      catch (Throwable e) {
+         throw new RuntimeException(e);
       }
    }
 
+   /**
+    * @return The entity of the target table in the current row. Created if it does not exist yet.
+    */
+   private Object targetOfCurrentRow() {
+      return tableNameToEntitiesInCurrentRow.computeIfAbsent(plan.targetTableName, tbl -> {
+         try {
+            return introspected.getTableTarget(introspected.getTableName());
+         }
+         catch (IllegalAccessException | InstantiationException e) {
+            throw new RuntimeException(e);
+         }
+      });
+   }
+
    @Nullable
    private Object getObject(final int colIdx, final AttributeInfo fcInfo) throws SQLException
    {
@@ -255,7 +286,7 @@ class ResultSetToObjectProcessor<T> {
       ) {
          if (!(currentTargetInfo.getType().isPrimitive() && columnValue == null)) {
             try {
-               Object typeCorrectedValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(currentTargetInfo, columnValue, metaData, introspected, colIdx);
+               Object typeCorrectedValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(currentTargetInfo, columnValue, plan.columnTypeNames[colIdx], introspected);
                currentTargetInfo.setValue(currentEntity, typeCorrectedValue);
             }
             catch (IllegalAccessException e) {
@@ -276,7 +307,7 @@ class ResultSetToObjectProcessor<T> {
             // Do not call currentTargetInfo.setValue() directly. AttributeInfo#setValue() does not apply type conversion (e. g. identity fields of type BigInteger to integer)!
             if (!parentInfo.isOneToManyAnnotated) {
                try {
-                  Object typeCorrectedValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(parentInfo, currentEntity, metaData, introspected, colIdx);
+                  Object typeCorrectedValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(parentInfo, currentEntity, plan.columnTypeNames[colIdx], introspected);
                   parentInfo.setValue(currentParent, typeCorrectedValue);
                }
                catch (IllegalAccessException e) {
@@ -296,7 +327,7 @@ class ResultSetToObjectProcessor<T> {
          if (value == null) {
             Collection collection = new ArrayList();
             collection.add(currentEntity);
-            Object typeCorrecteValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(parentInfo, collection, metaData, introspected, colIdx);
+            Object typeCorrecteValue = DATABASE_VALUE_TO_FIELD_TYPE.adaptValueToFieldType(parentInfo, collection, plan.columnTypeNames[colIdx], introspected);
             parentInfo.setValue(currentParent, typeCorrecteValue);
 
 //            String parentTableName = parentInfo.getOwnerClassTableName().toUpperCase();
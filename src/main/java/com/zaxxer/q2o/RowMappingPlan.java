@@ -0,0 +1,215 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Everything {@link ResultSetToObjectProcessor} needs to know about the columns of a result set to map its rows onto an entity. Compiled once per result set shape so that mapping a row neither asks the {@link ResultSetMetaData} nor looks up {@link AttributeInfo}s by name.
+ * <p>
+ * Plans of queries whose SQL is known are cached by SQL and entity class. So repeated queries skip planning entirely.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class RowMappingPlan {
+
+   private static final BoundedCache<Key, RowMappingPlan> planCache = BoundedCache.create("RowMappingPlan.planCache");
+   private static final DatabaseValueToFieldType DATABASE_VALUE_TO_FIELD_TYPE = new DatabaseValueToFieldType();
+
+   /**
+    * Reads a column with the typed getter of the result set, e. g. {@link ResultSet#getInt(int)}, and writes the value unboxed to the entity.
+    */
+   interface PrimitiveReader {
+      /**
+       * @return false if the value is SQL NULL. Nothing was written then.
+       */
+      boolean read(ResultSet resultSet, int colIdx, Object target) throws Throwable;
+   }
+
+   final int columnCount;
+   /**
+    * All arrays are indexed by the column index as used by JDBC, so index 0 is unused.
+    */
+   final String[] columnNames;
+   /**
+    * Empty string if the driver does not provide a table name, e. g. with aliased columns.
+    */
+   final String[] tableNames;
+   final String[] columnTypeNames;
+   /**
+    * null for columns without corresponding entity field.
+    */
+   final AttributeInfo[] fcInfos;
+   final boolean[] isIgnored;
+   /**
+    * true if the column belongs to the table of the target entity or can not be associated with any table.
+    */
+   final boolean[] isOfTargetTable;
+   /**
+    * Non null for columns of the target table mapped to int, long or double attributes without conversion. Their values need neither boxing nor {@link DatabaseValueToFieldType}.
+    */
+   final PrimitiveReader[] primitiveReaders;
+   /**
+    * Non null for columns of the target table with entity field. Converts the column's values to the field's type.
+    */
+   final DatabaseValueToFieldType.Conversion[] conversions;
+   /**
+    * Upper cased table name of the target entity.
+    */
+   final String targetTableName;
+
+   private RowMappingPlan(final ResultSetMetaData metaData, final Introspected introspected, final Set<String> ignoredColumns) throws SQLException
+   {
+      columnCount = metaData.getColumnCount();
+      columnNames = new String[columnCount + 1];
+      tableNames = new String[columnCount + 1];
+      columnTypeNames = new String[columnCount + 1];
+      fcInfos = new AttributeInfo[columnCount + 1];
+      isIgnored = new boolean[columnCount + 1];
+      isOfTargetTable = new boolean[columnCount + 1];
+      primitiveReaders = new PrimitiveReader[columnCount + 1];
+      conversions = new DatabaseValueToFieldType.Conversion[columnCount + 1];
+      targetTableName = introspected.getTableName().toUpperCase();
+      final Set<String> ignored = ignoredColumns.isEmpty() ? ignoredColumns : OrmBase.foldCase(ignoredColumns);
+
+      for (int colIdx = columnCount; colIdx > 0; colIdx--) {
+         final String columnName = metaData.getColumnName(colIdx);
+         columnNames[colIdx] = columnName;
+         // To make names in ignoredColumns independend from database case sensitivity. Otherwise you have to write database dependent code.
+         if (!ignored.isEmpty() && ignored.contains(Introspected.foldCase(columnName))) {
+            isIgnored[colIdx] = true;
+            continue;
+         }
+         final String tableName = Optional.ofNullable(metaData.getTableName(colIdx)).orElse("");
+         tableNames[colIdx] = tableName;
+         columnTypeNames[colIdx] = metaData.getColumnTypeName(colIdx);
+
+         AttributeInfo fcInfo;
+         if (!tableName.isEmpty()) {
+            fcInfo = introspected.getFieldColumnInfo(tableName, columnName);
+            if (fcInfo == null) {
+               // OneToOneTest.flattenedTableJoin()
+               fcInfo = introspected.getFieldColumnInfo(columnName);
+            }
+         }
+         else {
+            fcInfo = introspected.getFieldColumnInfo(columnName);
+         }
+         fcInfos[colIdx] = fcInfo;
+         // tableName is empty when aliases as in "SELECT (t.string_from_number + 1) as string_from_number " were used. See org.sansorm.QueryTest.testConverterLoad().
+         isOfTargetTable[colIdx] = tableName.isEmpty() || tableName.equalsIgnoreCase(introspected.getTableName());
+         if (fcInfo != null && isOfTargetTable[colIdx]) {
+            primitiveReaders[colIdx] = primitiveReader(fcInfo, metaData.getColumnType(colIdx));
+            conversions[colIdx] = DATABASE_VALUE_TO_FIELD_TYPE.conversionFor(fcInfo, columnTypeNames[colIdx], introspected);
+         }
+      }
+   }
+
+   /**
+    * Restricted to column types whose typed getter returns what {@link DatabaseValueToFieldType} would have converted the value returned by getObject() to.
+    */
+   @Nullable
+   private static PrimitiveReader primitiveReader(final AttributeInfo fcInfo, final int sqlType)
+   {
+      final AttributeAccessor accessor = fcInfo.getPlainAccessor();
+      if (accessor == null || fcInfo.getConverter() != null || !fcInfo.getType().isPrimitive()) {
+         return null;
+      }
+      final boolean isInteger = sqlType == Types.INTEGER || sqlType == Types.SMALLINT || sqlType == Types.TINYINT;
+      if (fcInfo.getType() == int.class && isInteger) {
+         final AttributeAccessor.IntSetter setter = accessor.intSetter();
+         return setter == null ? null : (resultSet, colIdx, target) -> {
+            final int value = resultSet.getInt(colIdx);
+            if (value == 0 && resultSet.wasNull()) {
+               return false;
+            }
+            setter.set(target, value);
+            return true;
+         };
+      }
+      if (fcInfo.getType() == long.class && (isInteger || sqlType == Types.BIGINT)) {
+         final AttributeAccessor.LongSetter setter = accessor.longSetter();
+         return setter == null ? null : (resultSet, colIdx, target) -> {
+            final long value = resultSet.getLong(colIdx);
+            if (value == 0 && resultSet.wasNull()) {
+               return false;
+            }
+            setter.set(target, value);
+            return true;
+         };
+      }
+      if (fcInfo.getType() == double.class && (sqlType == Types.DOUBLE || sqlType == Types.FLOAT || sqlType == Types.REAL)) {
+         final AttributeAccessor.DoubleSetter setter = accessor.doubleSetter();
+         return setter == null ? null : (resultSet, colIdx, target) -> {
+            final double value = resultSet.getDouble(colIdx);
+            if (value == 0 && resultSet.wasNull()) {
+               return false;
+            }
+            setter.set(target, value);
+            return true;
+         };
+      }
+      return null;
+   }
+
+   /**
+    * @param sql The SQL the result set was produced by. null if unknown, then the plan is not cached.
+    */
+   static RowMappingPlan of(@Nullable final String sql, final ResultSetMetaData metaData, final Introspected introspected, final Set<String> ignoredColumns) throws SQLException
+   {
+      if (sql == null || !ignoredColumns.isEmpty()) {
+         return new RowMappingPlan(metaData, introspected, ignoredColumns);
+      }
+      final Key key = new Key(introspected, sql);
+      RowMappingPlan plan = planCache.get(key);
+      // Guard against a changed table layout with SELECT *.
+      if (plan == null || plan.columnCount != metaData.getColumnCount()) {
+         plan = new RowMappingPlan(metaData, introspected, ignoredColumns);
+         planCache.put(key, plan);
+      }
+      return plan;
+   }
+
+   static void clearCache()
+   {
+      planCache.clear();
+   }
+
+   private static final class Key {
+      private final Introspected introspected;
+      private final String sql;
+      private final int hash;
+
+      Key(final Introspected introspected, final String sql)
+      {
+         this.introspected = introspected;
+         this.sql = sql;
+         this.hash = 31 * System.identityHashCode(introspected) + sql.hashCode();
+      }
+
+      @Override
+      public boolean equals(final Object o)
+      {
+         if (this == o) {
+            return true;
+         }
+         if (!(o instanceof Key)) {
+            return false;
+         }
+         final Key key = (Key) o;
+         return introspected == key.introspected && sql.equals(key.sql);
+      }
+
+      @Override
+      public int hashCode()
+      {
+         return hash;
+      }
+   }
+}
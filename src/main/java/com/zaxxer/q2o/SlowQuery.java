@@ -0,0 +1,106 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * An operation that took at least the threshold set with {@link q2o#setSlowQueryLog(long, int, boolean)}.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public final class SlowQuery {
+
+   private final long timestamp;
+   private final Class<?> entityClass;
+   private final String operation;
+   private final String sql;
+   private final List<String> parameters;
+   private final long executionNanos;
+   private final long mappingNanos;
+   private final long rows;
+
+   SlowQuery(final long timestamp, final Class<?> entityClass, final String operation, @Nullable final String sql, final List<String> parameters, final long executionNanos, final long mappingNanos, final long rows) {
+      this.timestamp = timestamp;
+      this.entityClass = entityClass;
+      this.operation = operation;
+      this.sql = sql;
+      this.parameters = parameters;
+      this.executionNanos = executionNanos;
+      this.mappingNanos = mappingNanos;
+      this.rows = rows;
+   }
+
+   /**
+    * @return When the operation ended, in milliseconds since the epoch.
+    */
+   public long getTimestamp() {
+      return timestamp;
+   }
+
+   public Class<?> getEntityClass() {
+      return entityClass;
+   }
+
+   /**
+    * @return One of the operations of {@link Q2oMetrics}, e. g. {@link Q2oMetrics#FROM_CLAUSE}.
+    */
+   public String getOperation() {
+      return operation;
+   }
+
+   /**
+    * @return null if the operation executed several statements.
+    */
+   @Nullable
+   public String getSql() {
+      return sql;
+   }
+
+   /**
+    * @return The bound parameters, redacted to their types if configured. Empty with batches.
+    */
+   public List<String> getParameters() {
+      return parameters;
+   }
+
+   /**
+    * @return Time of preparing and executing the statement.
+    */
+   public long getExecutionNanos() {
+      return executionNanos;
+   }
+
+   /**
+    * @return Time of creating entities from the result set. 0 with writes.
+    */
+   public long getMappingNanos() {
+      return mappingNanos;
+   }
+
+   public double getMillis() {
+      return (executionNanos + mappingNanos) / 1_000_000d;
+   }
+
+   /**
+    * @return Rows read or written.
+    */
+   public long getRows() {
+      return rows;
+   }
+
+   @Override
+   public String toString() {
+      return "SlowQuery{" +
+         "operation=" + operation +
+         ", entityClass=" + entityClass.getName() +
+         ", millis=" + getMillis() +
+         ", executionMillis=" + executionNanos / 1_000_000d +
+         ", mappingMillis=" + mappingNanos / 1_000_000d +
+         ", rows=" + rows +
+         ", sql=" + sql +
+         ", parameters=" + parameters +
+         '}';
+   }
+}
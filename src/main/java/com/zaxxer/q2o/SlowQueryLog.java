@@ -0,0 +1,106 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ring buffer of the most recent {@link SlowQuery}s. Fed by {@link Metrics#end(long, long, long, Class, String, long, String, Object[])}.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+final class SlowQueryLog {
+
+   private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+   private static final int MAX_PARAMETER_LENGTH = 100;
+   /** Negative if disabled. */
+   private static volatile long thresholdNanos = -1;
+   private static volatile boolean redactParameters = true;
+   private static SlowQuery[] entries = new SlowQuery[0];
+   private static long count;
+
+   private SlowQueryLog() {
+   }
+
+   /**
+    * @param capacity 0 to disable.
+    */
+   static synchronized void configure(final long thresholdMillis, final int capacity, final boolean redactParameters) {
+      if (thresholdMillis < 0 || capacity < 0) {
+         throw new IllegalArgumentException("thresholdMillis and capacity must not be negative");
+      }
+      entries = new SlowQuery[capacity];
+      count = 0;
+      SlowQueryLog.redactParameters = redactParameters;
+      thresholdNanos = capacity > 0 ? thresholdMillis * 1_000_000 : -1;
+      Metrics.update();
+   }
+
+   static void reset() {
+      configure(0, 0, true);
+   }
+
+   static boolean isEnabled() {
+      return thresholdNanos >= 0;
+   }
+
+   static boolean isSlow(final long nanos) {
+      final long threshold = thresholdNanos;
+      return threshold >= 0 && nanos >= threshold;
+   }
+
+   static void add(final Class<?> entityClass, final String operation, @Nullable final String sql, @Nullable final Object[] parameters, final long executionNanos, final long mappingNanos, final long rows) {
+      final SlowQuery slowQuery = new SlowQuery(System.currentTimeMillis(), entityClass, operation, sql, format(parameters), executionNanos, mappingNanos, rows);
+      synchronized (SlowQueryLog.class) {
+         if (entries.length == 0) {
+            return;
+         }
+         entries[(int) (count++ % entries.length)] = slowQuery;
+      }
+      logger.info("{}", slowQuery);
+   }
+
+   /**
+    * @return The most recent first.
+    */
+   static synchronized List<SlowQuery> snapshot() {
+      final int size = (int) Math.min(count, entries.length);
+      final List<SlowQuery> snapshot = new ArrayList<>(size);
+      for (long i = count - 1; i >= count - size; i--) {
+         snapshot.add(entries[(int) (i % entries.length)]);
+      }
+      return snapshot;
+   }
+
+   static synchronized void clear() {
+      Arrays.fill(entries, null);
+      count = 0;
+   }
+
+   private static List<String> format(@Nullable final Object[] parameters) {
+      if (parameters == null) {
+         return Collections.emptyList();
+      }
+      final boolean redact = redactParameters;
+      final List<String> formatted = new ArrayList<>(parameters.length);
+      for (final Object parameter : parameters) {
+         if (parameter == null) {
+            formatted.add("null");
+         }
+         else if (redact) {
+            formatted.add('<' + parameter.getClass().getSimpleName() + '>');
+         }
+         else {
+            final String value = String.valueOf(parameter);
+            formatted.add(value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value);
+         }
+      }
+      return Collections.unmodifiableList(formatted);
+   }
+}
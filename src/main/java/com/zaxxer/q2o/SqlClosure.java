@@ -138,6 +138,17 @@ public class SqlClosure<T> {
       defaultDataSource = ds;
    }
 
+   /**
+    * @throws RuntimeException if q2o is not initialized.
+    */
+   static DataSource getDefaultDataSource() {
+      final DataSource dataSource = defaultDataSource;
+      if (dataSource == null) {
+         throw new RuntimeException("You must have initialized q2o with one of the methods in com.zaxxer.q2o.q2o.");
+      }
+      return dataSource;
+   }
+
    static void activateSpringDefaultExceptionTranslator(@NotNull DataSource dataSource) {
       defaultExceptionTranslator = newSpringExceptionTranslator(dataSource);
    }
@@ -171,6 +182,46 @@ public class SqlClosure<T> {
       }.execute();
    }
 
+   /**
+    * Execute a lambda returning a {@link Q2ObjIterator} which is consumed after this method returns. Unlike with {@link #sqlExecute(SqlFunction)} the connection is not released before the iterator is closed. Neither a transaction is started, a running one is joined by the transaction aware DataSource.
+    */
+   static <V> Q2ObjIterator<V> sqlExecuteOpen(final SqlFunction<Q2ObjIterator<V>> functional) {
+      final DataSource dataSource = getDefaultDataSource();
+      final boolean springTxAware = isSpringTxAware;
+      Connection connection = null;
+      try {
+         final long start = Metrics.start();
+         connection = springTxAware ? DataSourceUtils.getConnection(dataSource) : dataSource.getConnection();
+         Metrics.record(start, Q2oMetrics.Phase.CONNECTION, null, Q2oMetrics.CONNECTION);
+         final Q2ObjIterator<V> iterator = functional.execute(connection);
+         final Connection con = connection;
+         iterator.onClose(() -> releaseOpenConnection(con, dataSource, springTxAware));
+         return iterator;
+      }
+      catch (SQLException e) {
+         releaseOpenConnection(connection, dataSource, springTxAware);
+         if (springTxAware && defaultExceptionTranslator != null) {
+            throw defaultExceptionTranslator.translate("", null, e);
+         }
+         throw new RuntimeException(e);
+      }
+      catch (RuntimeException | Error e) {
+         releaseOpenConnection(connection, dataSource, springTxAware);
+         throw e;
+      }
+   }
+
+   private static void releaseOpenConnection(final Connection connection, final DataSource dataSource, final boolean springTxAware) {
+      if (connection != null) {
+         if (springTxAware) {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+         }
+         else {
+            quietClose(connection);
+         }
+      }
+   }
+
    /**
     * Execute a lambda {@code SqlVarArgsFunction} closure.
     *
@@ -254,7 +305,9 @@ public class SqlClosure<T> {
    private T executeWithSpringSupport() {
       Connection connection = null;
       try {
+         final long start = Metrics.start();
          connection = DataSourceUtils.getConnection(dataSource);
+         Metrics.record(start, Q2oMetrics.Phase.CONNECTION, null, Q2oMetrics.CONNECTION);
          return (args == null)
             ? execute(connection)
             : execute(connection, args);
@@ -341,7 +394,9 @@ public class SqlClosure<T> {
       Connection connection = null;
       Boolean origAutoCommit = null;
       try {
+         final long start = Metrics.start();
          connection = dataSource.getConnection();
+         Metrics.record(start, Q2oMetrics.Phase.CONNECTION, null, Q2oMetrics.CONNECTION);
          origAutoCommit = connection.getAutoCommit();
          if (!origAutoCommit) {
             connection.setAutoCommit(true);
@@ -385,7 +440,9 @@ public class SqlClosure<T> {
       boolean isNewTransaction = false;
       try {
          isNewTransaction = TransactionHelper.beginOrJoinTransaction();
+         final long start = Metrics.start();
          connection = dataSource.getConnection();
+         Metrics.record(start, Q2oMetrics.Phase.CONNECTION, null, Q2oMetrics.CONNECTION);
          connection.setAutoCommit(false);
          return (args == null)
             ? execute(connection)
@@ -0,0 +1,174 @@
+package com.zaxxer.q2o;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU cache of the PreparedStatements q2o prepares on a connection. So a statement executed repeatedly on the same connection, e. g. inserts within a transaction, is prepared only once. Helps with drivers without statement caching of their own.
+ * <p>
+ * Attached to the connection wrappers of {@link com.zaxxer.q2o.transaction.TxTransactionManager} and of the MySQL blob support. They return it from {@link Connection#unwrap(Class)} and close it before the connection is closed. Disabled by default, see {@link q2o#setStatementCacheSize(int)}.
+ * </p><p>
+ * Public only to be accessible by com.zaxxer.q2o.transaction. Do not use.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public final class StatementCache {
+
+   static final int DEFAULT_CAPACITY = Integer.getInteger("com.zaxxer.q2o.preparedStatementCacheSize", 0);
+   private static volatile int capacity = DEFAULT_CAPACITY;
+
+   private final Map<String, Entry> statements;
+   private final Map<String, Entry> statementsReturningKeys;
+
+   private StatementCache(final int capacity) {
+      this.statements = new Lru(capacity);
+      this.statementsReturningKeys = new Lru(capacity);
+   }
+
+   /**
+    * @return null if caching is disabled.
+    */
+   @Nullable
+   public static StatementCache create() {
+      final int capacity = StatementCache.capacity;
+      return capacity > 0 ? new StatementCache(capacity) : null;
+   }
+
+   static void setCapacity(final int capacity) {
+      StatementCache.capacity = capacity;
+   }
+
+   static boolean isEnabled() {
+      return capacity > 0;
+   }
+
+   /**
+    * @return The cache of connection or null if it has none.
+    */
+   @Nullable
+   static StatementCache of(final Connection connection) throws SQLException {
+      // Not all drivers implement isWrapperFor() properly. So ask only q2o's own wrappers.
+      if (isEnabled() && Proxy.isProxyClass(connection.getClass()) && connection.isWrapperFor(StatementCache.class)) {
+         return connection.unwrap(StatementCache.class);
+      }
+      return null;
+   }
+
+   /**
+    * @param connection The connection the cache is attached to.
+    * @param columnNames Columns of generated keys to return, or null.
+    * @return A cached statement. Closing it returns it to the cache. If the statement of sql is already in use, e. g. by an open iterator, an uncached one.
+    */
+   synchronized PreparedStatement prepare(final Connection connection, final String sql, @Nullable final String[] columnNames) throws SQLException {
+      final Map<String, Entry> cache = columnNames == null ? statements : statementsReturningKeys;
+      Entry entry = cache.get(sql);
+      if (entry != null && entry.inUse) {
+         return columnNames == null ? connection.prepareStatement(sql) : connection.prepareStatement(sql, columnNames);
+      }
+      if (entry == null || entry.statement.isClosed()) {
+         final PreparedStatement stmt = columnNames == null ? connection.prepareStatement(sql) : connection.prepareStatement(sql, columnNames);
+         entry = new Entry(stmt);
+         cache.put(sql, entry);
+      }
+      entry.inUse = true;
+      return entry.proxy;
+   }
+
+   /**
+    * Closes all cached statements.
+    */
+   public synchronized void close() {
+      statements.values().forEach(Entry::close);
+      statementsReturningKeys.values().forEach(Entry::close);
+      statements.clear();
+      statementsReturningKeys.clear();
+   }
+
+   synchronized int size() {
+      return statements.size() + statementsReturningKeys.size();
+   }
+
+   private synchronized void release(final Entry entry) throws SQLException {
+      entry.inUse = false;
+      if (entry.evicted) {
+         entry.close();
+      }
+      else {
+         entry.statement.clearParameters();
+         entry.statement.clearBatch();
+         entry.statement.clearWarnings();
+      }
+   }
+
+   private final class Entry implements InvocationHandler {
+      private final PreparedStatement statement;
+      private final PreparedStatement proxy;
+      private boolean inUse;
+      private boolean evicted;
+
+      Entry(final PreparedStatement statement) {
+         this.statement = statement;
+         this.proxy = (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(), new Class[] { PreparedStatement.class }, this);
+      }
+
+      @Override
+      public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+         switch (method.getName()) {
+         case "close":
+            if (inUse) {
+               release(this);
+            }
+            return null;
+         case "isClosed":
+            return !inUse || statement.isClosed();
+         default:
+            try {
+               return method.invoke(statement, args);
+            }
+            catch (InvocationTargetException e) {
+               throw e.getCause();
+            }
+         }
+      }
+
+      void close() {
+         SqlClosure.quietClose(statement);
+      }
+   }
+
+   private final class Lru extends LinkedHashMap<String, Entry> {
+      private static final long serialVersionUID = -2409741925618325042L;
+      private final int capacity;
+
+      Lru(final int capacity) {
+         super(16, 0.75f, true);
+         this.capacity = capacity;
+      }
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+         if (size() > capacity) {
+            final Entry entry = eldest.getValue();
+            if (entry.inUse) {
+               entry.evicted = true;
+            }
+            else {
+               entry.close();
+            }
+            return true;
+         }
+         return false;
+      }
+   }
+}
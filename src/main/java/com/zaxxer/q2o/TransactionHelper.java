@@ -56,6 +56,24 @@ public final class TransactionHelper
       return transactionManager != null;
    }
 
+   /**
+    * @return The active transaction of the current thread or null if there is none or no transaction manager is registered.
+    */
+   static Transaction getActiveTransaction()
+   {
+      final TransactionManager tm = transactionManager;
+      if (tm == null) {
+         return null;
+      }
+      try {
+         final Transaction transaction = tm.getTransaction();
+         return transaction != null && transaction.getStatus() == Status.STATUS_ACTIVE ? transaction : null;
+      }
+      catch (SystemException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
    /**
     * Start or join a transaction.
     *
@@ -0,0 +1,317 @@
+package com.zaxxer.q2o.processor;
+
+import com.zaxxer.q2o.EntityAccessor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Generates an {@link EntityAccessor} for each class annotated with {@link javax.persistence.Entity} or {@link javax.persistence.Table}. To reduce the work q2o does at runtime when an entity class is first used, and to not depend on method handles spun at runtime, e. g. with GraalVM native images.
+ * <p>
+ * Optional and therefore not registered as service. Enable it with javac option "-processor com.zaxxer.q2o.processor.EntityProcessor", or with Maven by listing it in the maven-compiler-plugin's annotationProcessors.
+ * </p><p>
+ * Fields not private are accessed directly, and of a {@link javax.persistence.MappedSuperclass} in another package only public ones. Other fields are accessed through their getter and setter, e. g. getName() and setName(String) for field name, if both are accessible. The remaining fields are still accessed as without the processor. Classes not accessible from their package are skipped.
+ * </p><p>
+ * The processor replaces field access only, introspection at startup is unchanged: q2o still reflects over all fields of an entity class once, to read their JPA annotations.
+ * </p><p>
+ * The entity classes with an accessor are listed in the resource {@link EntityAccessor#INDEX}, which q2o reads once per class loader. Entries of previous compilations are kept, so incremental builds do not drop accessors of classes not compiled again.
+ * </p>
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+@SupportedAnnotationTypes({"javax.persistence.Entity", "javax.persistence.Table"})
+public class EntityProcessor extends AbstractProcessor {
+
+   /**
+    * A field of the entity, accessed directly if getter and setter are null.
+    */
+   private static final class Attribute {
+      final String name;
+      final TypeMirror type;
+      final String getter;
+      final String setter;
+
+      Attribute(final String name, final TypeMirror type, final String getter, final String setter) {
+         this.name = name;
+         this.type = type;
+         this.getter = getter;
+         this.setter = setter;
+      }
+   }
+
+   private static final String MAPPED_SUPERCLASS = "javax.persistence.MappedSuperclass";
+   private static final String TABLE = "javax.persistence.Table";
+   private final Set<String> generated = new HashSet<>();
+   /**
+    * Binary names of the entity classes an accessor was generated for, in this compilation.
+    */
+   private final Set<String> indexed = new TreeSet<>();
+
+   @Override
+   public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+   }
+
+   @Override
+   public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+      for (final TypeElement annotation : annotations) {
+         for (final TypeElement entity : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+            if (entity.getKind() == ElementKind.CLASS && generated.add(entity.getQualifiedName().toString()) && generate(entity)) {
+               indexed.add(processingEnv.getElementUtils().getBinaryName(entity).toString());
+            }
+         }
+      }
+      if (roundEnv.processingOver() && !indexed.isEmpty()) {
+         writeIndex();
+      }
+      // Others may process the same annotations.
+      return false;
+   }
+
+   /**
+    * @return false if no accessor was generated.
+    */
+   private boolean generate(final TypeElement entity) {
+      if (!isAccessibleFromPackage(entity)) {
+         processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "No EntityAccessor generated, class is not accessible from its package", entity);
+         return false;
+      }
+      final String packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+      final String accessorName = flatName(entity) + EntityAccessor.SUFFIX;
+      final String entityType = processingEnv.getTypeUtils().erasure(entity.asType()).toString();
+      final List<Attribute> fields = accessibleFields(entity, packageName);
+
+      final StringBuilder src = new StringBuilder();
+      if (!packageName.isEmpty()) {
+         src.append("package ").append(packageName).append(";\n\n");
+      }
+      src.append("/**\n * Generated by ").append(EntityProcessor.class.getName()).append(" for {@link ").append(entityType).append("}. Do not edit.\n */\n");
+      src.append("public final class ").append(accessorName).append(" implements ").append(EntityAccessor.class.getName()).append(" {\n\n");
+      src.append("   private static final String[] ATTRIBUTES = {");
+      for (int i = 0; i < fields.size(); i++) {
+         src.append(i > 0 ? ", " : "").append('"').append(fields.get(i).name).append('"');
+      }
+      src.append("};\n\n");
+
+      src.append("   @Override\n   public Object newInstance() {\n");
+      src.append(hasAccessibleConstructor(entity) ? "      return new " + entityType + "();\n" : "      return null;\n");
+      src.append("   }\n\n");
+
+      src.append("   @Override\n   public String[] attributeNames() {\n      return ATTRIBUTES.clone();\n   }\n\n");
+
+      src.append("   @Override\n   public Object get(final Object entity, final int attribute) {\n");
+      src.append("      final ").append(entityType).append(" e = (").append(entityType).append(") entity;\n");
+      src.append("      switch (attribute) {\n");
+      for (int i = 0; i < fields.size(); i++) {
+         final Attribute field = fields.get(i);
+         src.append("         case ").append(i).append(":\n            return e.").append(field.getter != null ? field.getter + "()" : field.name).append(";\n");
+      }
+      src.append("         default:\n            throw new IndexOutOfBoundsException(String.valueOf(attribute));\n      }\n   }\n\n");
+
+      src.append("   @Override\n   @SuppressWarnings({\"unchecked\", \"rawtypes\"})\n   public void set(final Object entity, final int attribute, final Object value) {\n");
+      src.append("      final ").append(entityType).append(" e = (").append(entityType).append(") entity;\n");
+      src.append("      switch (attribute) {\n");
+      for (int i = 0; i < fields.size(); i++) {
+         final Attribute field = fields.get(i);
+         final String cast = "(" + castType(field.type) + ") value";
+         src.append("         case ").append(i).append(":\n            e.")
+            .append(field.setter != null ? field.setter + "(" + cast + ")" : field.name + " = " + cast).append(";\n            return;\n");
+      }
+      src.append("         default:\n            throw new IndexOutOfBoundsException(String.valueOf(attribute));\n      }\n   }\n}\n");
+
+      final String qualifiedName = packageName.isEmpty() ? accessorName : packageName + "." + accessorName;
+      try {
+         final JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, entity);
+         try (Writer writer = file.openWriter()) {
+            writer.write(src.toString());
+         }
+         return true;
+      }
+      catch (IOException e) {
+         processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Generating " + qualifiedName + " failed: " + e, entity);
+         return false;
+      }
+   }
+
+   /**
+    * Writes {@link EntityAccessor#INDEX}, merged with the one of a previous compilation, if any.
+    */
+   private void writeIndex() {
+      final Set<String> entityNames = new TreeSet<>(indexed);
+      final Filer filer = processingEnv.getFiler();
+      try {
+         final FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", EntityAccessor.INDEX);
+         try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+               if (!line.trim().isEmpty()) {
+                  entityNames.add(line.trim());
+               }
+            }
+         }
+      }
+      catch (IOException | IllegalArgumentException ignored) {
+         // No index yet.
+      }
+      try {
+         final FileObject index = filer.createResource(StandardLocation.CLASS_OUTPUT, "", EntityAccessor.INDEX);
+         try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+            for (final String entityName : entityNames) {
+               writer.write(entityName);
+               writer.write('\n');
+            }
+         }
+      }
+      catch (IOException e) {
+         processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Writing " + EntityAccessor.INDEX + " failed: " + e);
+      }
+   }
+
+   /**
+    * The fields q2o introspects: those of the class and its mapped superclasses, not static, final or transient. Fields hiding others are left out, as the generated code could not tell them apart.
+    */
+   private List<Attribute> accessibleFields(final TypeElement entity, final String packageName) {
+      final Map<String, Attribute> fields = new LinkedHashMap<>();
+      final List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(entity));
+      final Set<String> hidden = new HashSet<>();
+      for (TypeElement type = entity; type != null; type = superclassOf(type)) {
+         if (type != entity && (!hasAnnotation(type, MAPPED_SUPERCLASS) || hasAnnotation(type, TABLE))) {
+            continue;
+         }
+         final boolean isSamePackage = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().contentEquals(packageName);
+         for (final VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            final Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.TRANSIENT)) {
+               continue;
+            }
+            final String name = field.getSimpleName().toString();
+            if (fields.containsKey(name) || hidden.contains(name)) {
+               fields.remove(name);
+               hidden.add(name);
+               continue;
+            }
+            if (modifiers.contains(Modifier.PUBLIC) || (isSamePackage && !modifiers.contains(Modifier.PRIVATE))) {
+               fields.put(name, new Attribute(name, field.asType(), null, null));
+               continue;
+            }
+            final String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            final ExecutableElement getter = accessibleMethod(methods, packageName, "get" + capitalized, field.asType(), 0);
+            final ExecutableElement isGetter = field.asType().getKind() == TypeKind.BOOLEAN ? accessibleMethod(methods, packageName, "is" + capitalized, field.asType(), 0) : null;
+            final ExecutableElement setter = accessibleMethod(methods, packageName, "set" + capitalized, field.asType(), 1);
+            if ((getter != null || isGetter != null) && setter != null) {
+               fields.put(name, new Attribute(name, field.asType(), (getter != null ? getter : isGetter).getSimpleName().toString(), setter.getSimpleName().toString()));
+            }
+            else {
+               // Hides inherited fields of the same name nonetheless.
+               hidden.add(name);
+            }
+         }
+      }
+      return new ArrayList<>(fields.values());
+   }
+
+   /**
+    * @param parameters 0 for a getter returning type, 1 for a setter taking type.
+    * @return null if there is no such method not static and accessible from the package.
+    */
+   private ExecutableElement accessibleMethod(final List<ExecutableElement> methods, final String packageName, final String name, final TypeMirror type, final int parameters) {
+      for (final ExecutableElement method : methods) {
+         final Set<Modifier> modifiers = method.getModifiers();
+         if (!method.getSimpleName().contentEquals(name) || method.getParameters().size() != parameters || modifiers.contains(Modifier.STATIC)) {
+            continue;
+         }
+         final TypeMirror methodType = parameters == 0 ? method.getReturnType() : method.getParameters().get(0).asType();
+         if (!isSameErasure(methodType, type)) {
+            continue;
+         }
+         final boolean isSamePackage = processingEnv.getElementUtils().getPackageOf(method).getQualifiedName().contentEquals(packageName);
+         if (modifiers.contains(Modifier.PUBLIC) || (isSamePackage && !modifiers.contains(Modifier.PRIVATE))) {
+            return method;
+         }
+      }
+      return null;
+   }
+
+   private boolean isSameErasure(final TypeMirror type1, final TypeMirror type2) {
+      return processingEnv.getTypeUtils().isSameType(processingEnv.getTypeUtils().erasure(type1), processingEnv.getTypeUtils().erasure(type2));
+   }
+
+   private TypeElement superclassOf(final TypeElement type) {
+      final TypeMirror superclass = type.getSuperclass();
+      return superclass.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) superclass).asElement() : null;
+   }
+
+   private static boolean hasAnnotation(final Element element, final String annotationName) {
+      for (final AnnotationMirror annotation : element.getAnnotationMirrors()) {
+         if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * @return true if the class and all its enclosing classes are not private, and nested classes are static.
+    */
+   private static boolean isAccessibleFromPackage(final TypeElement entity) {
+      for (Element element = entity; element instanceof TypeElement; element = element.getEnclosingElement()) {
+         if (element.getModifiers().contains(Modifier.PRIVATE)) {
+            return false;
+         }
+         if (element.getEnclosingElement() instanceof TypeElement && !element.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private static boolean hasAccessibleConstructor(final TypeElement entity) {
+      if (entity.getModifiers().contains(Modifier.ABSTRACT)) {
+         return false;
+      }
+      for (final ExecutableElement constructor : ElementFilter.constructorsIn(entity.getEnclosedElements())) {
+         if (constructor.getParameters().isEmpty() && constructor.getThrownTypes().isEmpty()) {
+            return !constructor.getModifiers().contains(Modifier.PRIVATE);
+         }
+      }
+      return false;
+   }
+
+   /**
+    * @return E. g. "Outer_Inner" for class Outer.Inner.
+    */
+   private static String flatName(final TypeElement entity) {
+      String name = entity.getSimpleName().toString();
+      for (Element element = entity.getEnclosingElement(); element instanceof TypeElement; element = element.getEnclosingElement()) {
+         name = element.getSimpleName() + "_" + name;
+      }
+      return name;
+   }
+
+   private String castType(final TypeMirror type) {
+      if (type.getKind().isPrimitive()) {
+         return processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) type).getQualifiedName().toString();
+      }
+      return processingEnv.getTypeUtils().erasure(type).toString();
+   }
+}
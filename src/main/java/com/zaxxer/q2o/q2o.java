@@ -5,11 +5,16 @@ import com.zaxxer.q2o.transaction.TxTransactionManager;
 import javax.sql.DataSource;
 import javax.transaction.TransactionManager;
 import javax.transaction.UserTransaction;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 /** Single point of q2o configuration */
 public final class q2o {
 
    private static volatile boolean mySqlMode;
+   private static volatile boolean deriveParameterTypes;
+   private static volatile int multiRowInsertChunkSize;
    static volatile DataSource dataSource;
 
    private q2o() {
@@ -99,6 +104,14 @@ public final class q2o {
       SqlClosure.isSpringTxAware = false;
       SqlClosure.unsetDefaultExceptionTranslator();
       setMySqlMode(false);
+      deriveParameterTypes = false;
+      multiRowInsertChunkSize = 0;
+      StatementCache.setCapacity(StatementCache.DEFAULT_CAPACITY);
+      BoundedCache.setCapacity(BoundedCache.DEFAULT_CAPACITY);
+      EntityCache.reset();
+      Metrics.set(null);
+      SlowQueryLog.reset();
+      AsyncExecutor.reset();
       q2o.dataSource = null;
       OrmBase.clearCache();
       OrmReader.clearCache();
@@ -112,4 +125,146 @@ public final class q2o {
    public static void setMySqlMode(boolean mySqlMode) {
       q2o.mySqlMode = mySqlMode;
    }
+
+   static boolean isDeriveParameterTypes() {
+      return deriveParameterTypes;
+   }
+
+   /**
+    * To derive the SQL types of the parameters of inserts and updates from the entity's attribute types instead of asking the JDBC driver for {@link java.sql.ParameterMetaData}, which can cost a round trip to the database. Attributes of types without an obvious SQL type, e. g. with custom converters not declaring their database type, fall back to the driver. Call after q2o was initialized.
+    */
+   public static void setDeriveParameterTypes(boolean deriveParameterTypes) {
+      q2o.deriveParameterTypes = deriveParameterTypes;
+      ParameterTypes.clearCache();
+   }
+
+   static int getMultiRowInsertChunkSize() {
+      return multiRowInsertChunkSize;
+   }
+
+   /**
+    * To let {@link Q2ObjList#insertBatched(Iterable)} insert chunks of rows with one INSERT ... VALUES (...),(...),... statement each instead of JDBC batching, which many drivers execute as one round trip per row. A chunk is cut down to not exceed the parameter limit given by system property "com.zaxxer.q2o.maxStatementParameters" (default 2000). Call after q2o was initialized.
+    *
+    * @param rows Number of rows per statement. 0 or 1 to use JDBC batching (default).
+    */
+   public static void setMultiRowInsertChunkSize(int rows) {
+      q2o.multiRowInsertChunkSize = rows;
+   }
+
+   /**
+    * To let each connection obtained from q2o's transaction aware or MySQL blob supporting data source cache up to the given number of the PreparedStatements q2o prepares on it, in LRU order. So a statement executed repeatedly on the same connection, e. g. within a transaction, is prepared only once. Helps with drivers or pools without statement caching of their own. Applies to connections obtained afterwards. Call after q2o was initialized.
+    *
+    * @param statements Per connection. 0 to disable (default, if system property "com.zaxxer.q2o.preparedStatementCacheSize" is not set).
+    */
+   public static void setStatementCacheSize(int statements) {
+      StatementCache.setCapacity(statements);
+   }
+
+   /**
+    * To change the capacity of each of q2o's caches of generated SQL, result set mappings and parameter types. Default is given by system property "com.zaxxer.q2o.sqlCacheSize", then "com.zaxxer.sansorm.statementCacheSize", else 500. Call after q2o was initialized.
+    *
+    * @param entries Per cache. 0 to disable caching.
+    */
+   public static void setSqlCacheSize(int entries) {
+      BoundedCache.setCapacity(entries);
+   }
+
+   /**
+    * @return A snapshot of the size, hit, miss and eviction counters of each of q2o's caches.
+    */
+   public static List<CacheStatistics> getCacheStatistics() {
+      return BoundedCache.statistics();
+   }
+
+   /**
+    * To cache the entities of clazz read by {@link Q2Obj#byId(Class, Object...)}. Alternatively annotate clazz with {@link javax.persistence.Cacheable}, then system properties "com.zaxxer.q2o.entityCacheSize" (default 1000) and "com.zaxxer.q2o.entityCacheTtlMillis" (default 60000) apply. The cache is cleared with each write of entities of clazz through q2o. Call after q2o was initialized.
+    *
+    * @param maxEntries 0 to disable caching, even if clazz is annotated.
+    * @param ttlMillis Time after which a cached entity is read again. 0 to not expire.
+    */
+   public static void setEntityCache(Class<?> clazz, int maxEntries, long ttlMillis) {
+      EntityCache.configure(clazz, maxEntries, ttlMillis);
+   }
+
+   /**
+    * To cache the results of {@link Q2ObjList#fromClause(Class, String, Object...)} and {@link Q2ObjList#fromRawClause(Class, String, Object...)} for clazz by SQL and parameter values. Results of more than system property "com.zaxxer.q2o.queryCacheMaxRows" (default 1000) entities are not cached. The cache is cleared with each write through q2o of entities mapped to the table of clazz. Call after q2o was initialized.
+    *
+    * @param maxEntries Maximum number of cached results. 0 to disable caching.
+    * @param ttlMillis Time after which a cached result is read again. 0 to not expire.
+    */
+   public static void setQueryCache(Class<?> clazz, int maxEntries, long ttlMillis) {
+      EntityCache.configureQueries(clazz, maxEntries, ttlMillis);
+   }
+
+   /**
+    * To get timings of connection acquisition, statement preparation, execution and row mapping, and the number of rows read or written, by entity class and operation. Call after q2o was initialized.
+    *
+    * @param metrics null to not record metrics, the default.
+    * @see AggregatingMetrics
+    */
+   public static void setMetrics(Q2oMetrics metrics) {
+      Metrics.set(metrics);
+   }
+
+   /**
+    * To record the operations taking at least thresholdMillis, with SQL, parameters, execution and mapping time and number of rows. E. g. to tell whether a slow {@link Q2ObjList#fromClause(Class, String, Object...)} is the database or the mapping of the rows. Disabled by default. Call after q2o was initialized.
+    *
+    * @param capacity Number of most recent slow operations kept. 0 to disable.
+    * @param redactParameters true to record the types of parameter values only, e. g. to keep personal data out.
+    * @see #getSlowQueries()
+    */
+   public static void setSlowQueryLog(long thresholdMillis, int capacity, boolean redactParameters) {
+      SlowQueryLog.configure(thresholdMillis, capacity, redactParameters);
+   }
+
+   /**
+    * @return The slow operations recorded, the most recent first.
+    * @see #setSlowQueryLog(long, int, boolean)
+    */
+   public static List<SlowQuery> getSlowQueries() {
+      return SlowQueryLog.snapshot();
+   }
+
+   public static void clearSlowQueries() {
+      SlowQueryLog.clear();
+   }
+
+   /**
+    * To run the operations of {@link Q2ObjAsync} with at most maxConcurrency at a time, which should not exceed the size of the connection pool. Default is system property "com.zaxxer.q2o.asyncMaxConcurrency", or 10. Call after q2o was initialized.
+    *
+    * @param virtualThreads true to run each operation on a virtual thread of its own, with JDK 21 and later. Otherwise a pool of platform threads is used.
+    */
+   public static void setAsyncExecution(int maxConcurrency, boolean virtualThreads) {
+      AsyncExecutor.configure(maxConcurrency, virtualThreads);
+   }
+
+   /**
+    * To run the operations of {@link Q2ObjAsync} with an executor of your own, which is not shut down by q2o. Call after q2o was initialized.
+    */
+   public static void setAsyncExecutor(Executor executor) {
+      AsyncExecutor.set(executor);
+   }
+
+   /**
+    * Introspects the entity classes in parallel and builds their select, insert, update and delete statements, e. g. before an application takes traffic. Failures are logged and reported, not thrown. Call after q2o was initialized.
+    *
+    * @return Time taken per class.
+    */
+   public static List<PreloadResult> preload(Class<?>... entityClasses) {
+      return Preloader.preload(Arrays.asList(entityClasses));
+   }
+
+   /**
+    * Like {@link #preload(Class[])} with all classes annotated with {@link javax.persistence.Entity} or {@link javax.persistence.Table} in the packages and their subpackages. Call after q2o was initialized.
+    */
+   public static List<PreloadResult> preloadPackages(String... packageNames) {
+      return Preloader.preload(Preloader.scan(packageNames));
+   }
+
+   /**
+    * To be called after entities of clazz were changed by plain SQL, e. g. {@link Q2Sql#executeUpdate(String, Object...)}, or outside of the application.
+    */
+   public static void clearEntityCache(Class<?> clazz) {
+      EntityCache.invalidate(clazz);
+   }
 }
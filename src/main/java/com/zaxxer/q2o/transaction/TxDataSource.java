@@ -16,6 +16,8 @@
 
 package com.zaxxer.q2o.transaction;
 
+import com.zaxxer.q2o.StatementCache;
+
 import javax.sql.DataSource;
 import javax.transaction.Status;
 import java.lang.reflect.InvocationHandler;
@@ -73,10 +75,12 @@ class TxDataSource implements InvocationHandler
    static class TxConnection implements InvocationHandler
    {
       private final Connection connection;
+      private final StatementCache statementCache;
 
       private TxConnection(final Connection connection)
       {
          this.connection = connection;
+         this.statementCache = StatementCache.create();
       }
 
       static Connection getWrappedConnection(final Connection delegate) {
@@ -101,6 +105,25 @@ class TxDataSource implements InvocationHandler
             }
          }
 
+         if (statementCache != null) {
+            switch (method.getName())
+            {
+            case "isWrapperFor":
+               if (args[0] == StatementCache.class) {
+                  return true;
+               }
+               break;
+            case "unwrap":
+               if (args[0] == StatementCache.class) {
+                  return statementCache;
+               }
+               break;
+            case "close":
+               statementCache.close();
+               break;
+            }
+         }
+
          return method.invoke(connection, args);
       }
    }
@@ -0,0 +1,109 @@
+package com.zaxxer.q2o;
+
+import org.junit.Test;
+
+import javax.persistence.Access;
+import javax.persistence.AccessType;
+import javax.persistence.Table;
+import java.lang.reflect.InvocationTargetException;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class AttributeAccessorTest {
+
+   @Table(name = "TEST")
+   public static class FieldAccessed {
+      private int primitive;
+      private Long boxed;
+   }
+
+   @Table(name = "TEST")
+   @Access(AccessType.PROPERTY)
+   public static class PropertyAccessed {
+      private int primitive;
+      private String string;
+
+      public int getPrimitive() {
+         return primitive;
+      }
+
+      public void setPrimitive(int primitive) {
+         this.primitive = primitive;
+      }
+
+      public String getString() {
+         return string;
+      }
+
+      public void setString(String string) {
+         this.string = string;
+      }
+   }
+
+   @Test
+   public void fieldAccess() throws Exception {
+      FieldInfo primitive = new FieldInfo(FieldAccessed.class.getDeclaredField("primitive"), FieldAccessed.class);
+      FieldInfo boxed = new FieldInfo(FieldAccessed.class.getDeclaredField("boxed"), FieldAccessed.class);
+      FieldAccessed target = new FieldAccessed();
+
+      primitive.setValue(target, 5);
+      boxed.setValue(target, 6L);
+      assertEquals(5, target.primitive);
+      assertEquals(Long.valueOf(6), target.boxed);
+      assertEquals(5, primitive.getValue(target));
+      assertEquals(6L, boxed.getValue(target));
+
+      boxed.setValue(target, null);
+      assertNull(boxed.getValue(target));
+   }
+
+   @Test
+   public void fieldAccessWideningConversionAsWithReflection() throws Exception {
+      FieldInfo primitive = new FieldInfo(FieldAccessed.class.getDeclaredField("primitive"), FieldAccessed.class);
+      FieldAccessed target = new FieldAccessed();
+      primitive.setValue(target, (short) 7);
+      assertEquals(7, target.primitive);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void fieldAccessNullToPrimitiveAsWithReflection() throws Exception {
+      FieldInfo primitive = new FieldInfo(FieldAccessed.class.getDeclaredField("primitive"), FieldAccessed.class);
+      primitive.setValue(new FieldAccessed(), null);
+   }
+
+   @Test
+   public void propertyAccess() throws Exception {
+      PropertyInfo primitive = new PropertyInfo(PropertyAccessed.class.getDeclaredField("primitive"), PropertyAccessed.class);
+      PropertyInfo string = new PropertyInfo(PropertyAccessed.class.getDeclaredField("string"), PropertyAccessed.class);
+      PropertyAccessed target = new PropertyAccessed();
+
+      primitive.setValue(target, 5);
+      string.setValue(target, "test");
+      assertEquals(5, target.getPrimitive());
+      assertEquals("test", target.getString());
+      assertEquals(5, primitive.getValue(target));
+      assertEquals("test", string.getValue(target));
+   }
+
+   @Test
+   public void accessorsAreBoundForPublicProperties() throws Exception {
+      AttributeAccessor accessor = AttributeAccessor.forProperty(
+         PropertyAccessed.class.getMethod("getPrimitive"),
+         PropertyAccessed.class.getMethod("setPrimitive", int.class));
+      assertNotNull(accessor);
+      assertTrue(accessor.hasSetter());
+      assertTrue(accessor.accepts(1));
+      assertFalse(accessor.accepts(null));
+      assertFalse(accessor.accepts(1L));
+   }
+
+   @Test(expected = RuntimeException.class)
+   public void propertyAccessNullToPrimitiveAsWithReflection() throws NoSuchFieldException, IllegalAccessException, InvocationTargetException {
+      PropertyInfo primitive = new PropertyInfo(PropertyAccessed.class.getDeclaredField("primitive"), PropertyAccessed.class);
+      primitive.setValue(new PropertyAccessed(), null);
+   }
+}
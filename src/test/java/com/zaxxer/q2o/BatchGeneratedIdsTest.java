@@ -0,0 +1,122 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import javax.persistence.Column;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class BatchGeneratedIdsTest {
+
+   @Table(name = "BATCH_IDS_TEST")
+   public static class BatchIdsTest {
+      @Id
+      @GeneratedValue(strategy = GenerationType.IDENTITY)
+      Long id;
+      @Column(name = "note")
+      String note;
+   }
+
+   private DataSource dataSource;
+
+   @Before
+   public void setUp() {
+      dataSource = DataSources.getH2ImMemoryDataSource(true);
+      q2o.initializeTxNone(dataSource);
+      Q2Sql.executeUpdate("CREATE TABLE BATCH_IDS_TEST (id BIGINT AUTO_INCREMENT PRIMARY KEY, note VARCHAR(128))");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE BATCH_IDS_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void idsAreFilledInOrder() throws SQLException {
+      List<BatchIdsTest> rows = rows(3);
+      Introspected introspected = Introspected.getInstance(BatchIdsTest.class);
+      try (Connection con = dataSource.getConnection();
+           PreparedStatement stmt = con.prepareStatement("SELECT X * 10 FROM SYSTEM_RANGE(1, 3)");
+           ResultSet keys = stmt.executeQuery()) {
+         assertEquals(3, OrmWriter.fillGeneratedIds(rows, rows.size(), introspected, keys));
+      }
+      assertEquals(Long.valueOf(10), rows.get(0).id);
+      assertEquals(Long.valueOf(30), rows.get(2).id);
+   }
+
+   @Test
+   public void idsAreNotFilledWithoutKeyPerRow() throws SQLException {
+      List<BatchIdsTest> rows = rows(3);
+      Introspected introspected = Introspected.getInstance(BatchIdsTest.class);
+      try (Connection con = dataSource.getConnection();
+           PreparedStatement stmt = con.prepareStatement("SELECT 3");
+           ResultSet keys = stmt.executeQuery()) {
+         assertEquals(0, OrmWriter.fillGeneratedIds(rows, rows.size(), introspected, keys));
+      }
+      assertNull(rows.get(0).id);
+   }
+
+   @Test
+   public void insertBatched() {
+      List<BatchIdsTest> rows = rows(3);
+      Q2ObjList.insertBatched(rows);
+      assertEquals(3, Q2Obj.countFromClause(BatchIdsTest.class, null));
+      for (BatchIdsTest row : rows) {
+         assertNotNull(row.id);
+         assertEquals(row.note, Q2Obj.byId(BatchIdsTest.class, row.id).note);
+      }
+   }
+
+   @Test
+   public void insertMultiRow() {
+      q2o.setMultiRowInsertChunkSize(2);
+      List<BatchIdsTest> rows = rows(3);
+      Q2ObjList.insertBatched(rows);
+      assertEquals(3, Q2Obj.countFromClause(BatchIdsTest.class, null));
+      // H2 returns one key only for a multi-row statement, so the ids of its rows are not filled.
+      assertNull(rows.get(0).id);
+      assertNull(rows.get(1).id);
+      // The last odd row is inserted with the single-row statement.
+      assertNotNull(rows.get(2).id);
+      assertEquals("note2", Q2Obj.byId(BatchIdsTest.class, rows.get(2).id).note);
+   }
+
+   @Test
+   public void insertMultiRowAllIdsFilled() {
+      q2o.setMultiRowInsertChunkSize(2);
+      List<BatchIdsTest> rows = rows(1);
+      // Fewer rows than the chunk size and no pair to combine, so the row is inserted with the single-row statement.
+      Q2ObjList.insertBatched(rows);
+      assertNotNull(rows.get(0).id);
+      assertEquals("note0", Q2Obj.byId(BatchIdsTest.class, rows.get(0).id).note);
+   }
+
+   private static List<BatchIdsTest> rows(int count) {
+      List<BatchIdsTest> rows = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+         BatchIdsTest row = new BatchIdsTest();
+         row.note = "note" + i;
+         rows.add(row);
+      }
+      return rows;
+   }
+}
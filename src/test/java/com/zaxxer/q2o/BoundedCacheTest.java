@@ -0,0 +1,112 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class BoundedCacheTest {
+
+   @After
+   public void tearDown() {
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void countsHitsAndMisses() {
+      BoundedCache<String, String> cache = BoundedCache.create("test.countsHitsAndMisses");
+      assertNull(cache.get("a"));
+      assertEquals("A", cache.computeIfAbsent("a", String::toUpperCase));
+      assertEquals("A", cache.computeIfAbsent("a", key -> { throw new AssertionError("not cached"); }));
+      assertEquals("A", cache.get("a"));
+
+      CacheStatistics statistics = statisticsOf("test.countsHitsAndMisses");
+      assertEquals(2, statistics.getHits());
+      assertEquals(2, statistics.getMisses());
+      assertEquals(1, statistics.getSize());
+      assertEquals(0.5, statistics.getHitRate(), 0.0001);
+   }
+
+   @Test
+   public void evictsLeastRecentlyUsed() {
+      BoundedCache<Integer, String> cache = BoundedCache.create("test.evictsLeastRecentlyUsed");
+      q2o.setSqlCacheSize(10);
+      for (int i = 0; i < 10; i++) {
+         cache.put(i, "v" + i);
+      }
+      // Touch 0 to keep it.
+      assertEquals("v0", cache.get(0));
+      cache.put(10, "v10");
+
+      assertTrue(cache.size() <= 10);
+      assertEquals("v0", cache.get(0));
+      assertNull(cache.get(1));
+      assertEquals("v10", cache.get(10));
+      assertTrue(statisticsOf("test.evictsLeastRecentlyUsed").getEvictions() >= 1);
+   }
+
+   @Test
+   public void zeroCapacityDisablesCaching() {
+      BoundedCache<String, String> cache = BoundedCache.create("test.zeroCapacityDisablesCaching");
+      cache.put("a", "A");
+      q2o.setSqlCacheSize(0);
+      assertEquals(0, cache.size());
+      AtomicInteger computations = new AtomicInteger();
+      cache.computeIfAbsent("b", key -> "B" + computations.incrementAndGet());
+      cache.computeIfAbsent("b", key -> "B" + computations.incrementAndGet());
+      assertEquals(2, computations.get());
+      assertEquals(0, cache.size());
+   }
+
+   @Test
+   public void concurrentAccessStaysBounded() throws Exception {
+      BoundedCache<Integer, Integer> cache = BoundedCache.create("test.concurrentAccessStaysBounded");
+      q2o.setSqlCacheSize(100);
+      ExecutorService executor = Executors.newFixedThreadPool(8);
+      try {
+         List<Future<?>> futures = new ArrayList<>();
+         for (int t = 0; t < 8; t++) {
+            final int offset = t;
+            futures.add(executor.submit(() -> {
+               for (int i = 0; i < 10_000; i++) {
+                  int key = (i * 7 + offset) % 1000;
+                  assertEquals(Integer.valueOf(key * 2), cache.computeIfAbsent(key, k -> k * 2));
+               }
+            }));
+         }
+         for (Future<?> future : futures) {
+            future.get();
+         }
+      }
+      finally {
+         executor.shutdown();
+      }
+      // One thread evicts at a time, so others may overshoot until the next insert.
+      cache.put(-1, -2);
+      assertTrue(cache.size() <= 100);
+   }
+
+   @Test
+   public void sqlCachesAreReported() {
+      // Loads OrmReader and OrmWriter.
+      q2o.deinitialize();
+      List<CacheStatistics> statistics = q2o.getCacheStatistics();
+      assertTrue(statistics.stream().anyMatch(s -> s.getName().equals("OrmReader.fromClauseStmtCache")));
+      assertTrue(statistics.stream().anyMatch(s -> s.getName().equals("OrmWriter.createStatementCache")));
+   }
+
+   private static CacheStatistics statisticsOf(String name) {
+      return q2o.getCacheStatistics().stream().filter(s -> s.getName().equals(name)).findFirst().orElseThrow(AssertionError::new);
+   }
+}
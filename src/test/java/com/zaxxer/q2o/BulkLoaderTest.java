@@ -0,0 +1,52 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.entities.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+import org.sansorm.testutils.TableCreatorH2;
+
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class BulkLoaderTest {
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      TableCreatorH2.createItemTable();
+   }
+
+   @After
+   public void tearDown() {
+      TableCreatorH2.dropItemTable();
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void insertParallel() {
+      BulkLoadResult result = Q2ObjList.insertParallel(IntStream.range(0, 5000).mapToObj(i -> new Item(i, "note" + i)), 4, 700);
+      assertEquals(5000, result.getRows());
+      assertEquals(4, result.getThreads());
+      assertEquals(5000, Q2Obj.countFromClause(Item.class, null));
+      assertEquals("note4999", Q2Obj.byId(Item.class, 4999).name);
+   }
+
+   @Test
+   public void failureStopsLoad() {
+      Q2Obj.insert(new Item(10, "note10"));
+      try {
+         Q2ObjList.insertParallel(IntStream.range(0, 100).mapToObj(i -> new Item(i, "note" + i)), 2, 1000);
+         fail("Duplicate key expected");
+      }
+      catch (RuntimeException expected) {
+         assertNotNull(expected.getCause());
+      }
+   }
+}
@@ -0,0 +1,83 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import java.sql.Timestamp;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class ColumnConversionTest {
+
+   public static class UpperCaseConverter implements AttributeConverter<String, String> {
+      @Override
+      public String convertToDatabaseColumn(String attribute) {
+         return attribute;
+      }
+
+      @Override
+      public String convertToEntityAttribute(String dbData) {
+         return dbData.toUpperCase();
+      }
+   }
+
+   @Table(name = "COLUMN_CONVERSION_TEST")
+   public static class Event {
+      @Id
+      int id;
+      @Column(name = "name")
+      @Convert(converter = UpperCaseConverter.class)
+      String name;
+      @Column(name = "happened")
+      @Temporal(TemporalType.TIMESTAMP)
+      Date happened;
+   }
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE COLUMN_CONVERSION_TEST (id INTEGER NOT NULL PRIMARY KEY, name VARCHAR(128), happened TIMESTAMP)");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE COLUMN_CONVERSION_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void convertersAreApplied() {
+      Q2Sql.executeUpdate("INSERT INTO COLUMN_CONVERSION_TEST VALUES (1, 'launch', TIMESTAMP '2026-10-17 12:00:00'), (2, NULL, NULL)");
+      Event event = Q2Obj.byId(Event.class, 1);
+      assertEquals("LAUNCH", event.name);
+      assertEquals(Timestamp.valueOf("2026-10-17 12:00:00").getTime(), event.happened.getTime());
+      Event empty = Q2Obj.byId(Event.class, 2);
+      assertNull(empty.name);
+      assertNull(empty.happened);
+   }
+
+   @Test
+   public void conversionFallsBackToTypeInspection() {
+      AttributeInfo happened = Introspected.getInstance(Event.class).getFieldColumnInfo("happened");
+      DatabaseValueToFieldType.Conversion conversion = new DatabaseValueToFieldType().conversionFor(happened, "TIMESTAMP", Introspected.getInstance(Event.class));
+      // As SQLite provides it.
+      assertEquals(new Date(1000L), conversion.convert(1000L));
+      Timestamp timestamp = new Timestamp(2000L);
+      assertEquals(2000L, ((Date) conversion.convert(timestamp)).getTime());
+      assertNull(conversion.convert(null));
+   }
+}
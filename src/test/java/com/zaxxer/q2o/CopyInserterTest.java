@@ -0,0 +1,93 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import javax.persistence.Column;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class CopyInserterTest {
+
+   public enum State { ON, OFF }
+
+   @Table(name = "COPY_TEST")
+   public static class CopyTest {
+      @Id
+      int id;
+      @Column(name = "note")
+      String note;
+      @Column(name = "amount")
+      BigDecimal amount;
+      @Column(name = "data")
+      byte[] data;
+      @Enumerated(EnumType.STRING)
+      @Column(name = "state")
+      State state;
+   }
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE COPY_TEST (id INTEGER NOT NULL PRIMARY KEY, note VARCHAR(128), amount DECIMAL(10,2), data VARBINARY(16), state VARCHAR(5))");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE COPY_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void copySql() {
+      Introspected introspected = Introspected.getInstance(CopyTest.class);
+      assertEquals("COPY COPY_TEST (id,note,amount,data,state) FROM STDIN", CopyInserter.createSqlForCopy(introspected, introspected.getInsertableFcInfos()));
+   }
+
+   @Test
+   public void textFormat() throws SQLException {
+      Introspected introspected = Introspected.getInstance(CopyTest.class);
+      CopyTest obj = new CopyTest();
+      obj.id = 1;
+      obj.note = "a\tb\\c\nd";
+      obj.amount = new BigDecimal("1E+2");
+      obj.data = new byte[] {0x0a, (byte) 0xff};
+      obj.state = State.OFF;
+      StringBuilder sb = new StringBuilder();
+      CopyInserter.appendRow(sb, obj, introspected.getInsertableFcInfos());
+      assertEquals("1\ta\\tb\\\\c\\nd\t100\t\\\\x0aff\tOFF\n", sb.toString());
+
+      obj.note = null;
+      obj.data = null;
+      sb.setLength(0);
+      CopyInserter.appendRow(sb, obj, introspected.getInsertableFcInfos());
+      assertEquals("1\t\\N\t100\t\\N\tOFF\n", sb.toString());
+   }
+
+   @Test
+   public void fallbackToBatching() throws SQLException {
+      CopyTest obj = new CopyTest();
+      obj.id = 1;
+      obj.note = "one";
+      obj.state = State.ON;
+      try (Connection con = q2o.dataSource.getConnection()) {
+         assertFalse(CopyInserter.isPostgreSql(con));
+      }
+      Q2ObjList.insertCopy(Arrays.asList(obj));
+      assertEquals(State.ON, Q2Obj.byId(CopyTest.class, 1).state);
+   }
+}
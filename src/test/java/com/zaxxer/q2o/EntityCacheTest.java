@@ -0,0 +1,203 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+import org.sansorm.testutils.TxMode;
+import org.sansorm.testutils.TxModeTestConfigurator;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class EntityCacheTest extends TxModeTestConfigurator {
+
+   @Cacheable
+   @Table(name = "ENTITY_CACHE_TEST")
+   public static class Country {
+      @Id
+      int id;
+      @Column(name = "name")
+      String name;
+   }
+
+   @Table(name = "ENTITY_CACHE_TEST")
+   public static class NotCached {
+      @Id
+      int id;
+      @Column(name = "name")
+      String name;
+   }
+
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+      Q2Sql.executeUpdate("CREATE TABLE ENTITY_CACHE_TEST (id INTEGER NOT NULL PRIMARY KEY, name VARCHAR(128))");
+      Q2Sql.executeUpdate("INSERT INTO ENTITY_CACHE_TEST VALUES (1, 'Germany'), (2, 'France')");
+   }
+
+   @After
+   public void tearDown() throws Exception {
+      Q2Sql.executeUpdate("DROP TABLE ENTITY_CACHE_TEST");
+      super.tearDown();
+   }
+
+   @Test
+   public void annotatedEntitiesAreCached() {
+      Country country = Q2Obj.byId(Country.class, 1);
+      assertEquals("Germany", country.name);
+      Q2Sql.executeUpdate("UPDATE ENTITY_CACHE_TEST SET name = 'Deutschland' WHERE id = 1");
+
+      Country cached = Q2Obj.byId(Country.class, 1L);
+      assertEquals("Germany", cached.name);
+      assertNotSame(country, cached);
+      assertEquals("Deutschland", Q2Obj.byId(NotCached.class, 1).name);
+
+      q2o.clearEntityCache(Country.class);
+      assertEquals("Deutschland", Q2Obj.byId(Country.class, 1).name);
+      assertNull(Q2Obj.byId(Country.class, 3));
+   }
+
+   @Test
+   public void writesInvalidate() {
+      Country country = Q2Obj.byId(Country.class, 1);
+      country.name = "Deutschland";
+      Q2Obj.update(country);
+      assertEquals("Deutschland", Q2Obj.byId(Country.class, 1).name);
+
+      Q2Obj.byId(Country.class, 2);
+      Q2Obj.deleteByWhereClause(Country.class, "id = ?", 2);
+      assertNull(Q2Obj.byId(Country.class, 2));
+
+      Q2Obj.delete(country);
+      assertNull(Q2Obj.byId(Country.class, 1));
+   }
+
+   @Test
+   public void listDeleteInvalidates() {
+      Country country = Q2Obj.byId(Country.class, 1);
+      Q2ObjList.delete(Collections.singletonList(country));
+      assertNull(Q2Obj.byId(Country.class, 1));
+   }
+
+   @Test
+   public void entriesExpire() throws InterruptedException {
+      q2o.setEntityCache(Country.class, 10, 1);
+      Q2Obj.byId(Country.class, 1);
+      Q2Sql.executeUpdate("UPDATE ENTITY_CACHE_TEST SET name = 'Deutschland' WHERE id = 1");
+      Thread.sleep(5);
+      assertEquals("Deutschland", Q2Obj.byId(Country.class, 1).name);
+   }
+
+   @Test
+   public void configurationOverridesAnnotation() {
+      q2o.setEntityCache(Country.class, 0, 0);
+      Q2Obj.byId(Country.class, 1);
+      Q2Sql.executeUpdate("UPDATE ENTITY_CACHE_TEST SET name = 'Deutschland' WHERE id = 1");
+      assertEquals("Deutschland", Q2Obj.byId(Country.class, 1).name);
+
+      q2o.setEntityCache(NotCached.class, 10, 0);
+      Q2Obj.byId(NotCached.class, 1);
+      Q2Sql.executeUpdate("UPDATE ENTITY_CACHE_TEST SET name = 'Germany' WHERE id = 1");
+      assertEquals("Deutschland", Q2Obj.byId(NotCached.class, 1).name);
+   }
+
+   @Test
+   public void uncommittedChangesAreNotCached() {
+      assumeTrue(hasTransactions());
+      Q2Obj.byId(Country.class, 1);
+      beginTransaction();
+      try {
+         Country country = Q2Obj.byId(Country.class, 1);
+         country.name = "Deutschland";
+         Q2Obj.update(country);
+         // The transaction sees its own change but does not cache it.
+         assertEquals("Deutschland", Q2Obj.byId(Country.class, 1).name);
+         assertEquals("France", Q2Obj.byId(Country.class, 2).name);
+         assertEquals(0, cacheSize());
+      }
+      finally {
+         rollback();
+      }
+      assertEquals("Germany", Q2Obj.byId(Country.class, 1).name);
+      assertEquals(1, cacheSize());
+   }
+
+   @Test
+   public void committedChangesAreVisible() {
+      assumeTrue(hasTransactions());
+      beginTransaction();
+      Country country = Q2Obj.byId(Country.class, 1);
+      country.name = "Deutschland";
+      Q2Obj.update(country);
+      commit();
+      assertEquals("Deutschland", Q2Obj.byId(Country.class, 1).name);
+   }
+
+   @Test
+   public void committedChangesReplaceStateCachedMeanwhile() throws Exception {
+      assumeTrue(hasTransactions());
+      beginTransaction();
+      try {
+         Country country = Q2Obj.byId(Country.class, 1);
+         country.name = "Deutschland";
+         Q2Obj.update(country);
+         assertEquals("Germany", readConcurrently(() -> Q2Obj.byId(Country.class, 1).name));
+         assertEquals(1, cacheSize());
+      }
+      catch (Exception | Error e) {
+         rollback();
+         throw e;
+      }
+      commit();
+      assertEquals("Deutschland", Q2Obj.byId(Country.class, 1).name);
+   }
+
+   @Test
+   public void readsOfSpringTransactionsAreNotCached() {
+      assumeTrue(txMode == TxMode.springTx);
+      beginTransaction();
+      try {
+         assertEquals("Germany", Q2Obj.byId(Country.class, 1).name);
+         assertEquals(0, cacheSize());
+      }
+      finally {
+         rollback();
+      }
+   }
+
+   @Test
+   public void connectionsNotInAutoCommitModeBypassTheCache() throws SQLException {
+      Q2Obj.byId(Country.class, 1);
+      try (Connection connection = DataSources.getH2ImMemoryDataSource(true).getConnection()) {
+         connection.setAutoCommit(false);
+         Country country = Q2Obj.byId(connection, Country.class, 1);
+         country.name = "Deutschland";
+         Q2Obj.update(connection, country);
+         assertEquals("Deutschland", Q2Obj.byId(connection, Country.class, 1).name);
+         assertEquals("France", Q2Obj.byId(connection, Country.class, 2).name);
+         assertEquals(0, cacheSize());
+         connection.rollback();
+      }
+      assertEquals("Germany", Q2Obj.byId(Country.class, 1).name);
+      assertEquals(1, cacheSize());
+   }
+
+   private static int cacheSize() {
+      return q2o.getCacheStatistics().stream()
+         .filter(s -> s.getName().equals("EntityCache." + Country.class.getName()))
+         .findFirst().map(CacheStatistics::getSize).orElse(0);
+   }
+}
@@ -0,0 +1,113 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.processor.EntityProcessor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sansorm.DataSources;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeNotNull;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class EntityProcessorTest {
+
+   @Rule
+   public TemporaryFolder folder = new TemporaryFolder();
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE ENTITY_PROCESSOR_TEST (id INTEGER NOT NULL PRIMARY KEY, name VARCHAR(128), amount BIGINT, note VARCHAR(128))");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE ENTITY_PROCESSOR_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void generatedAccessorIsUsed() throws Exception {
+      JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      assumeNotNull(compiler);
+      File src = new File(folder.newFolder("src", "example"), "Outer.java");
+      Files.write(src.toPath(), (
+         "package example;\n"
+            + "import javax.persistence.*;\n"
+            + "public class Outer {\n"
+            + "   @Table(name = \"ENTITY_PROCESSOR_TEST\")\n"
+            + "   public static class Account {\n"
+            + "      @Id int id;\n"
+            + "      @Column(name = \"name\") String name;\n"
+            + "      @Column(name = \"amount\") long amount;\n"
+            + "      @Column(name = \"secret\") @Transient private String secret;\n"
+            + "      @Column(name = \"note\") private String note;\n"
+            + "      public String getNote() { return note; }\n"
+            + "      public void setNote(String note) { this.note = note; }\n"
+            + "      Account() {}\n"
+            + "   }\n"
+            + "}\n").getBytes(StandardCharsets.UTF_8));
+      File classes = folder.newFolder("classes");
+
+      try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+         Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(src);
+         JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+            Arrays.asList("-d", classes.getPath(), "-s", classes.getPath(), "-classpath", System.getProperty("java.class.path")),
+            null, units);
+         task.setProcessors(Collections.singletonList(new EntityProcessor()));
+         assertTrue(task.call());
+      }
+      assertTrue(new File(classes, "example/Outer_Account_Q2o.java").exists());
+      assertEquals(Collections.singletonList("example.Outer$Account"), Files.readAllLines(new File(classes, EntityAccessor.INDEX).toPath(), StandardCharsets.UTF_8));
+
+      try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader())) {
+         Class<?> accountClass = loader.loadClass("example.Outer$Account");
+         Introspected introspected = Introspected.getInstance(accountClass);
+         EntityAccessor accessor = introspected.getEntityAccessor();
+         assertNotNull(accessor);
+         assertEquals(Arrays.asList("id", "name", "amount", "note"), Arrays.asList(accessor.attributeNames()));
+
+         Object account = introspected.newInstance();
+         set(account, "id", 1);
+         set(account, "name", "savings");
+         set(account, "amount", 42L);
+         // Private, accessed through getter and setter.
+         accessor.set(account, 3, "monthly");
+         assertEquals("monthly", accessor.get(account, 3));
+         Q2Obj.insert(account);
+
+         Object read = Q2Obj.byId(accountClass, 1);
+         assertEquals("savings", accessor.get(read, 1));
+         assertEquals(42L, accessor.get(read, 2));
+         assertEquals("monthly", accessor.get(read, 3));
+
+         // Not listed in the index, so not looked up.
+         assertNull(Introspected.getInstance(loader.loadClass("example.Outer")).getEntityAccessor());
+      }
+   }
+
+   private static void set(Object target, String fieldName, Object value) throws ReflectiveOperationException {
+      Field field = target.getClass().getDeclaredField(fieldName);
+      field.setAccessible(true);
+      field.set(target, value);
+   }
+}
@@ -775,6 +775,22 @@ public class IntrospectedTest
       assertNotNull(fcInfo);
    }
 
+   @Test
+   public void columnLookupIsCaseInsensitive()
+   {
+      Introspected introspected = Introspected.getInstance(TargetClass1.class);
+      AttributeInfo fcInfo = introspected.getFieldColumnInfo("string_from_number");
+      assertNotNull(fcInfo);
+      assertSame(fcInfo, introspected.getFieldColumnInfo("STRING_FROM_NUMBER"));
+      assertSame(fcInfo, introspected.getFieldColumnInfo("String_From_Number"));
+      assertSame(fcInfo, introspected.getFieldColumnInfo("TARGET_CLASS1", "STRING_FROM_NUMBER"));
+      assertNull(introspected.getFieldColumnInfo("unknown"));
+
+      String folded = Introspected.foldCase("string_from_number");
+      assertSame(folded, Introspected.foldCase(folded));
+      assertEquals(folded, Introspected.foldCase("STRING_FROM_NUMBER"));
+   }
+
    // TODO Gehört zu RefreshTest#refreshObjectLeftJoinedTables(), aber das Feld rightId wurde inzwischen entfernt, da die für dieses Feld erforderliche Annotation für Verwendung von Middle1 unter Hibernate nicht geeignet ist.
    @Test @Ignore
    public void joinFieldId()
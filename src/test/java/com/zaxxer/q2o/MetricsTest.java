@@ -0,0 +1,111 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.entities.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+import org.sansorm.testutils.TableCreatorH2;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class MetricsTest {
+
+   private final AggregatingMetrics metrics = new AggregatingMetrics();
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      TableCreatorH2.createItemTable();
+      q2o.setMetrics(metrics);
+   }
+
+   @After
+   public void tearDown() {
+      TableCreatorH2.dropItemTable();
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void operationsAreRecorded() {
+      Q2ObjList.insertBatched(Arrays.asList(new Item(1, "one"), new Item(2, "two"), new Item(3, "three")));
+      Item item = Q2Obj.byId(Item.class, 1);
+      item.name = "first";
+      Q2Obj.update(item);
+      assertEquals(2, Q2ObjList.fromClause(Item.class, "id > ?", 1).size());
+      Q2Obj.insert(new Item(4, "four"));
+      Q2Obj.deleteById(Item.class, 4);
+
+      String entity = ' ' + Item.class.getName();
+      Map<String, Long> counts = metrics.getCounts();
+      for (String phase : new String[]{"PREPARE", "EXECUTE", "MAPPING"}) {
+         assertEquals(phase, Long.valueOf(1), counts.get("byId " + phase + entity));
+         assertEquals(phase, Long.valueOf(1), counts.get("fromClause " + phase + entity));
+      }
+      assertEquals(Long.valueOf(1), counts.get("insertBatch EXECUTE" + entity));
+      assertEquals(Long.valueOf(1), counts.get("update EXECUTE" + entity));
+      assertEquals(Long.valueOf(1), counts.get("insert EXECUTE" + entity));
+      assertEquals(Long.valueOf(1), counts.get("delete EXECUTE" + entity));
+      assertTrue(counts.get("connection CONNECTION") >= 6);
+      assertTrue(metrics.getTotalNanos().get("byId EXECUTE" + entity) > 0);
+      assertTrue(metrics.getMaxNanos().get("byId EXECUTE" + entity) <= metrics.getTotalNanos().get("byId EXECUTE" + entity));
+
+      Map<String, Long> rows = metrics.getRows();
+      assertEquals(Long.valueOf(3), rows.get("insertBatch" + entity));
+      assertEquals(Long.valueOf(1), rows.get("byId" + entity));
+      assertEquals(Long.valueOf(2), rows.get("fromClause" + entity));
+      assertEquals(Long.valueOf(1), rows.get("update" + entity));
+      assertEquals(Long.valueOf(1), rows.get("delete" + entity));
+   }
+
+   @Test
+   public void nothingIsRecordedWithoutMetrics() {
+      q2o.setMetrics(null);
+      Q2Obj.insert(new Item(1, "one"));
+      Q2Obj.byId(Item.class, 1);
+      assertTrue(metrics.getCounts().isEmpty());
+      assertTrue(metrics.getRows().isEmpty());
+   }
+
+   @Test
+   public void failingListenerDoesNotFailOperations() {
+      q2o.setMetrics(new Q2oMetrics() {
+         @Override
+         public void recordTime(Phase phase, Class<?> entityClass, String operation, long nanos) {
+            throw new IllegalStateException();
+         }
+
+         @Override
+         public void recordRows(Class<?> entityClass, String operation, long rows) {
+            throw new IllegalStateException();
+         }
+      });
+      Q2Obj.insert(new Item(1, "one"));
+      assertEquals("one", Q2Obj.byId(Item.class, 1).name);
+   }
+
+   @Test
+   public void mbean() throws Exception {
+      String name = "com.zaxxer.q2o:type=MetricsTest";
+      metrics.registerMBean(name);
+      try {
+         Q2Obj.insert(new Item(1, "one"));
+         Object counts = ManagementFactory.getPlatformMBeanServer().getAttribute(new ObjectName(name), "Counts");
+         assertNotNull(counts);
+         metrics.reset();
+         assertTrue(metrics.getCounts().isEmpty());
+      }
+      finally {
+         metrics.unregisterMBean(name);
+      }
+   }
+}
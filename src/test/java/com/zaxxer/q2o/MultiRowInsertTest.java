@@ -0,0 +1,129 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.entities.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+import org.sansorm.testutils.TableCreatorH2;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class MultiRowInsertTest {
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      TableCreatorH2.createItemTable();
+   }
+
+   @After
+   public void tearDown() {
+      TableCreatorH2.dropItemTable();
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void insertInChunks() {
+      q2o.setMultiRowInsertChunkSize(4);
+      Q2ObjList.insertBatched(rows(10));
+
+      List<Item> list = Q2ObjList.fromRawClause(Item.class, "ORDER BY id");
+      assertEquals(10, list.size());
+      assertEquals(0, list.get(0).id);
+      assertEquals("note9", list.get(9).name);
+   }
+
+   @Test
+   public void lastChunksOfDifferentSizes() {
+      q2o.setMultiRowInsertChunkSize(4);
+      List<Item> rows = rows(18);
+      Q2ObjList.insertBatched(rows.subList(0, 5));
+      Q2ObjList.insertBatched(rows.subList(5, 11));
+      Q2ObjList.insertBatched(rows.subList(11, 18));
+
+      List<Item> list = Q2ObjList.fromRawClause(Item.class, "ORDER BY id");
+      assertEquals(18, list.size());
+      for (int i = 0; i < 18; i++) {
+         assertEquals("note" + i, list.get(i).name);
+      }
+   }
+
+   @Test
+   public void lastChunkIsSplitIntoPowersOfTwo() {
+      List<Integer> preparedRows = new ArrayList<>();
+      q2o.initializeTxNone(recordingPreparedRows(DataSources.getH2ImMemoryDataSource(true), preparedRows));
+      q2o.setMultiRowInsertChunkSize(1000);
+      Q2ObjList.insertBatched(rows(999));
+
+      assertEquals(Arrays.asList(512, 256, 128, 64, 32, 4, 2, 1), preparedRows);
+      assertEquals(999, Q2Obj.countFromClause(Item.class, null));
+      assertEquals("note998", Q2Obj.byId(Item.class, 998).name);
+   }
+
+   @Test
+   public void chunkSmallerThanChunkSize() {
+      q2o.setMultiRowInsertChunkSize(100);
+      Q2ObjList.insertBatched(rows(3));
+      assertEquals(3, Q2Obj.countFromClause(Item.class, null));
+   }
+
+   @Test
+   public void nullValues() {
+      q2o.setMultiRowInsertChunkSize(2);
+      List<Item> rows = rows(2);
+      rows.get(1).name = null;
+      Q2ObjList.insertBatched(rows);
+      assertNull(Q2Obj.byId(Item.class, 1).name);
+      assertEquals("note0", Q2Obj.byId(Item.class, 0).name);
+   }
+
+   /**
+    * @param preparedRows Gets the number of rows of each INSERT statement prepared.
+    */
+   private static DataSource recordingPreparedRows(DataSource dataSource, List<Integer> preparedRows) {
+      return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[]{DataSource.class}, (dsProxy, dsMethod, dsArgs) -> {
+         Object result = invoke(dataSource, dsMethod, dsArgs);
+         if (!dsMethod.getName().equals("getConnection")) {
+            return result;
+         }
+         Connection connection = (Connection) result;
+         return Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, (conProxy, conMethod, conArgs) -> {
+            if (conMethod.getName().equals("prepareStatement") && ((String) conArgs[0]).startsWith("INSERT")) {
+               preparedRows.add(((String) conArgs[0]).split("\\),\\(").length);
+            }
+            return invoke(connection, conMethod, conArgs);
+         });
+      });
+   }
+
+   private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+      try {
+         return method.invoke(target, args);
+      }
+      catch (InvocationTargetException e) {
+         throw e.getCause();
+      }
+   }
+
+   private static List<Item> rows(int count) {
+      List<Item> rows = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+         rows.add(new Item(i, "note" + i));
+      }
+      return rows;
+   }
+}
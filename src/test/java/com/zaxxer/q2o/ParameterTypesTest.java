@@ -0,0 +1,107 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import javax.persistence.Column;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class ParameterTypesTest {
+
+   public enum Color { RED, GREEN }
+
+   @Table(name = "PARAM_TYPES_TEST")
+   public static class ParamTypesTest {
+      @Id
+      int id;
+      @Column(name = "note")
+      String note;
+      @Column(name = "amount")
+      Long amount;
+      @Enumerated(EnumType.STRING)
+      @Column(name = "color")
+      Color color;
+      @Temporal(TemporalType.TIMESTAMP)
+      @Column(name = "created")
+      Date created;
+   }
+
+   private DataSource dataSource;
+
+   @Before
+   public void setUp() {
+      dataSource = DataSources.getH2ImMemoryDataSource(true);
+      q2o.initializeTxNone(dataSource);
+      Q2Sql.executeUpdate("CREATE TABLE PARAM_TYPES_TEST (id INTEGER NOT NULL PRIMARY KEY, note VARCHAR(128), amount BIGINT, color VARCHAR(10), created TIMESTAMP)");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE PARAM_TYPES_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void typesAreCachedBySql() throws SQLException {
+      String sql = "SELECT * FROM PARAM_TYPES_TEST WHERE id = ? AND note = ?";
+      try (Connection con = dataSource.getConnection();
+           PreparedStatement stmt = con.prepareStatement(sql)) {
+         int[] types = ParameterTypes.of(stmt, sql);
+         assertArrayEquals(new int[] {Types.INTEGER, Types.VARCHAR}, types);
+         assertSame(types, ParameterTypes.of(stmt, sql));
+         assertNotSame(types, ParameterTypes.of(stmt, null));
+      }
+   }
+
+   @Test
+   public void typesDerivedFromAttributes() {
+      Introspected introspected = Introspected.getInstance(ParamTypesTest.class);
+      int[] types = ParameterTypes.fromAttributes(new AttributeInfo[] {
+         introspected.getFieldColumnInfo("id"),
+         introspected.getFieldColumnInfo("note"),
+         introspected.getFieldColumnInfo("amount"),
+         introspected.getFieldColumnInfo("color"),
+         introspected.getFieldColumnInfo("created")});
+      assertArrayEquals(new int[] {Types.INTEGER, Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.TIMESTAMP}, types);
+   }
+
+   @Test
+   public void insertUpdateWithDerivedTypes() {
+      q2o.setDeriveParameterTypes(true);
+      ParamTypesTest obj = new ParamTypesTest();
+      obj.id = 1;
+      obj.note = "one";
+      obj.color = Color.GREEN;
+      obj.created = new Date();
+      Q2Obj.insert(obj);
+
+      obj.amount = 5L;
+      obj.note = null;
+      Q2Obj.update(obj);
+
+      ParamTypesTest loaded = Q2Obj.byId(ParamTypesTest.class, 1);
+      assertNull(loaded.note);
+      assertEquals(Long.valueOf(5), loaded.amount);
+      assertEquals(Color.GREEN, loaded.color);
+      assertEquals(obj.created.getTime(), loaded.created.getTime());
+   }
+}
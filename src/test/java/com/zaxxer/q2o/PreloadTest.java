@@ -0,0 +1,111 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.entities.Item;
+import opix.domain.filetypes.filetypes.FileTypeEntity;
+import opix.domain.filetypes.filetypes.WinExtensionEntity;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+import org.sansorm.testutils.TableCreatorH2;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.Table;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class PreloadTest {
+
+   @Table(name = "ITEM_TEST")
+   public static class Invalid {
+      @Id
+      @Column(name = "id")
+      @JoinColumn(name = "id")
+      Item id;
+   }
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      TableCreatorH2.createItemTable();
+   }
+
+   @After
+   public void tearDown() {
+      TableCreatorH2.dropItemTable();
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void statementsAreBuiltAhead() {
+      List<PreloadResult> results = q2o.preload(Item.class);
+      assertEquals(1, results.size());
+      PreloadResult result = results.get(0);
+      assertSame(Item.class, result.getEntityClass());
+      assertTrue(result.isSuccess());
+      assertTrue(result.getNanos() > 0);
+
+      long byIdHits = hits("OrmReader.byIdStmtCache");
+      String byId = OrmReader.generateSelectById(Item.class);
+      assertEquals(byIdHits + 1, hits("OrmReader.byIdStmtCache"));
+      assertSame(byId, OrmReader.generateSelectById(Item.class));
+
+      long updateMisses = misses("OrmWriter.updateStatementCache");
+      long deleteMisses = misses("OrmWriter.deleteByIdStatementCache");
+      Item item = new Item(1, "first");
+      Q2Obj.insert(item);
+      item.name = "second";
+      Q2Obj.update(item);
+      assertEquals("second", Q2Obj.byId(Item.class, 1).name);
+      Q2Obj.deleteById(Item.class, 1);
+      assertNull(Q2Obj.byId(Item.class, 1));
+      assertEquals(updateMisses, misses("OrmWriter.updateStatementCache"));
+      assertEquals(deleteMisses, misses("OrmWriter.deleteByIdStatementCache"));
+   }
+
+   @Test
+   public void failuresAreReported() {
+      List<PreloadResult> results = q2o.preload(Item.class, Invalid.class);
+      assertTrue(results.get(0).isSuccess());
+      assertSame(Invalid.class, results.get(1).getEntityClass());
+      assertNotNull(results.get(1).getFailure());
+   }
+
+   @Test
+   public void packagesAreScanned() {
+      List<Class<?>> classes = new ArrayList<>();
+      for (PreloadResult result : q2o.preloadPackages("opix.domain")) {
+         assertTrue(result.toString(), result.isSuccess());
+         classes.add(result.getEntityClass());
+      }
+      assertEquals(Arrays.asList(FileTypeEntity.class, WinExtensionEntity.class), classes);
+      // Jar file without entities
+      assertTrue(q2o.preloadPackages("javax.persistence").isEmpty());
+   }
+
+   private static long hits(String cacheName) {
+      return statistics(cacheName).getHits();
+   }
+
+   private static long misses(String cacheName) {
+      return statistics(cacheName).getMisses();
+   }
+
+   private static CacheStatistics statistics(String cacheName) {
+      for (CacheStatistics statistics : q2o.getCacheStatistics()) {
+         if (statistics.getName().equals(cacheName)) {
+            return statistics;
+         }
+      }
+      throw new AssertionError(cacheName);
+   }
+}
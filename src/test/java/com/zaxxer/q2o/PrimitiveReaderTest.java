@@ -0,0 +1,135 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import javax.persistence.Access;
+import javax.persistence.AccessType;
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class PrimitiveReaderTest {
+
+   @Table(name = "PRIMITIVE_READER_TEST")
+   public static class Measurement {
+      @Id
+      int id;
+      @Column(name = "count_")
+      long count;
+      @Column(name = "amount")
+      double amount;
+      @Column(name = "label")
+      double label;
+      @Column(name = "nullable")
+      Integer nullable;
+   }
+
+   @Access(AccessType.PROPERTY)
+   @Table(name = "PRIMITIVE_READER_TEST")
+   public static class MeasurementBean {
+      private int id;
+      private long count;
+      private double amount;
+
+      @Id
+      public int getId() {
+         return id;
+      }
+
+      public void setId(int id) {
+         this.id = id;
+      }
+
+      @Column(name = "count_")
+      public long getCount() {
+         return count;
+      }
+
+      public void setCount(long count) {
+         this.count = count;
+      }
+
+      @Column(name = "amount")
+      public double getAmount() {
+         return amount;
+      }
+
+      public void setAmount(double amount) {
+         this.amount = amount;
+      }
+   }
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE PRIMITIVE_READER_TEST (id INTEGER NOT NULL PRIMARY KEY, count_ BIGINT, amount DOUBLE, label INTEGER, nullable INTEGER)");
+      Q2Sql.executeUpdate("INSERT INTO PRIMITIVE_READER_TEST VALUES (1, 9007199254740993, 1.5, 7, NULL), (2, 0, 0, 0, 3)");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE PRIMITIVE_READER_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void primitiveColumnsAreReadTyped() {
+      List<Measurement> measurements = Q2ObjList.fromRawClause(Measurement.class, "ORDER BY id");
+      Measurement first = measurements.get(0);
+      assertEquals(1, first.id);
+      assertEquals(9007199254740993L, first.count);
+      assertEquals(1.5, first.amount, 0);
+      assertEquals(7, first.label, 0);
+      assertNull(first.nullable);
+      Measurement second = measurements.get(1);
+      assertEquals(0, second.count);
+      assertEquals(0, second.amount, 0);
+      assertEquals(Integer.valueOf(3), second.nullable);
+
+      MeasurementBean bean = Q2Obj.byId(MeasurementBean.class, 1);
+      assertEquals(9007199254740993L, bean.getCount());
+      assertEquals(1.5, bean.getAmount(), 0);
+   }
+
+   @Test
+   public void primitiveAsFirstColumnIsRead() {
+      List<Measurement> measurements = Q2ObjList.fromSelect(Measurement.class, "SELECT count_, amount, nullable FROM PRIMITIVE_READER_TEST ORDER BY id");
+      assertEquals(9007199254740993L, measurements.get(0).count);
+      assertEquals(1.5, measurements.get(0).amount, 0);
+      assertNull(measurements.get(0).nullable);
+      assertEquals(Integer.valueOf(3), measurements.get(1).nullable);
+
+      Measurement measurement = Q2Obj.fromSelect(Measurement.class, "SELECT amount FROM PRIMITIVE_READER_TEST WHERE id = ?", 1);
+      assertEquals(1.5, measurement.amount, 0);
+   }
+
+   @Test
+   public void readersArePlannedForMatchingTypesOnly() {
+      String sql = OrmReader.generateSelectFromWhereClause(Measurement.class, null, true);
+      SqlClosure.sqlExecute(connection -> {
+         try (PreparedStatement stmt = connection.prepareStatement(sql);
+              ResultSet rs = stmt.executeQuery()) {
+            RowMappingPlan plan = RowMappingPlan.of(null, rs.getMetaData(), Introspected.getInstance(Measurement.class), Collections.emptySet());
+            for (int colIdx = 1; colIdx <= plan.columnCount; colIdx++) {
+               String column = plan.columnNames[colIdx].toLowerCase();
+               boolean expected = column.equals("id") || column.equals("count_") || column.equals("amount");
+               assertEquals(column, expected, plan.primitiveReaders[colIdx] != null);
+            }
+         }
+         return null;
+      });
+   }
+}
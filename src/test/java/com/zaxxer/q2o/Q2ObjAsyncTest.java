@@ -0,0 +1,140 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.entities.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.testutils.TableCreatorH2;
+import org.sansorm.testutils.TxMode;
+import org.sansorm.testutils.TxModeTestConfigurator;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class Q2ObjAsyncTest extends TxModeTestConfigurator {
+
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+      TableCreatorH2.createItemTable();
+   }
+
+   @After
+   public void tearDown() throws Exception {
+      TableCreatorH2.dropItemTable();
+      super.tearDown();
+   }
+
+   @Test
+   public void operationsCompleteConcurrently() throws Exception {
+      CompletableFuture.allOf(
+         Q2ObjAsync.insert(new Item(1, "one")),
+         Q2ObjAsync.insert(new Item(2, "two")),
+         Q2ObjAsync.insert(new Item(3, "three"))
+      ).get(10, TimeUnit.SECONDS);
+
+      CompletableFuture<Item> byId = Q2ObjAsync.byId(Item.class, 2);
+      CompletableFuture<List<Item>> list = Q2ObjAsync.listFromClause(Item.class, "id > ?", 1);
+      CompletableFuture<Integer> count = Q2ObjAsync.countFromClause(Item.class, null);
+      CompletableFuture<Number> sum = Q2ObjAsync.numberFromSql("SELECT SUM(id) FROM ITEM_TEST");
+      CompletableFuture.allOf(byId, list, count, sum).get(10, TimeUnit.SECONDS);
+      assertEquals("two", byId.get().name);
+      assertEquals(2, list.get().size());
+      assertEquals(Integer.valueOf(3), count.get());
+      assertEquals(6, sum.get().intValue());
+
+      assertEquals(Integer.valueOf(1), Q2ObjAsync.deleteById(Item.class, 1).get(10, TimeUnit.SECONDS));
+      assertNull(Q2Obj.byId(Item.class, 1));
+   }
+
+   @Test
+   public void executeRunsInOwnTransaction() throws Exception {
+      CompletableFuture<Integer> future = Q2ObjAsync.execute(connection -> {
+         Q2Obj.insert(connection, new Item(1, "one"));
+         Q2Obj.insert(connection, new Item(1, "duplicate"));
+         return 2;
+      });
+      try {
+         future.get(10, TimeUnit.SECONDS);
+         fail();
+      }
+      catch (ExecutionException expected) {
+         Item item = Q2Obj.byId(Item.class, 1);
+         if (txMode == TxMode.txSimple) {
+            assertNull("rolled back", item);
+         }
+         else {
+            // Auto-commit without transaction manager, also with Spring support.
+            assertEquals("one", item.name);
+         }
+      }
+   }
+
+   @Test
+   public void callingWithinTransactionIsRejected() {
+      assumeTrue(hasTransactions());
+      beginTransaction();
+      try {
+         Q2ObjAsync.byId(Item.class, 1);
+         fail();
+      }
+      catch (IllegalStateException expected) {
+      }
+      finally {
+         rollback();
+      }
+   }
+
+   @Test
+   public void concurrencyIsBounded() throws Exception {
+      for (boolean virtualThreads : new boolean[]{false, true}) {
+         q2o.setAsyncExecution(2, virtualThreads);
+         AtomicInteger running = new AtomicInteger();
+         AtomicInteger maxRunning = new AtomicInteger();
+         CountDownLatch started = new CountDownLatch(2);
+         CompletableFuture<?>[] futures = new CompletableFuture<?>[6];
+         for (int i = 0; i < futures.length; i++) {
+            futures[i] = Q2ObjAsync.execute(connection -> {
+               maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+               started.countDown();
+               await(started);
+               running.decrementAndGet();
+               return null;
+            });
+         }
+         CompletableFuture.allOf(futures).get(10, TimeUnit.SECONDS);
+         assertEquals(2, maxRunning.get());
+      }
+   }
+
+   @Test
+   public void customExecutor() throws Exception {
+      AtomicInteger executed = new AtomicInteger();
+      q2o.setAsyncExecutor(task -> {
+         executed.incrementAndGet();
+         task.run();
+      });
+      Q2ObjAsync.insert(new Item(1, "one")).get(10, TimeUnit.SECONDS);
+      assertEquals(1, executed.get());
+   }
+
+   private static void await(CountDownLatch latch) {
+      try {
+         assertTrue(latch.await(10, TimeUnit.SECONDS));
+      }
+      catch (InterruptedException e) {
+         throw new RuntimeException(e);
+      }
+   }
+}
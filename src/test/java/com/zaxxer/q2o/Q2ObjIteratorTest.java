@@ -0,0 +1,83 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.entities.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+import org.sansorm.testutils.TableCreatorH2;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class Q2ObjIteratorTest {
+
+   private DataSource dataSource;
+
+   @Before
+   public void setUp() {
+      dataSource = DataSources.getH2ImMemoryDataSource(true);
+      q2o.initializeTxNone(dataSource);
+      TableCreatorH2.createItemTable();
+      Q2Sql.executeUpdate("INSERT INTO ITEM_TEST VALUES (1, 'one'), (2, 'two'), (3, 'three')");
+   }
+
+   @After
+   public void tearDown() {
+      TableCreatorH2.dropItemTable();
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void streamFromClause() {
+      try (Stream<Item> stream = Q2ObjList.streamFromClause(Item.class, 2, "id > ? ORDER BY id", 1)) {
+         List<String> names = stream.map(it -> it.name).collect(Collectors.toList());
+         assertEquals(2, names.size());
+         assertEquals("two", names.get(0));
+         assertEquals("three", names.get(1));
+      }
+   }
+
+   @Test
+   public void iterateFromSelect() {
+      try (Q2ObjIterator<Item> iterator = Q2ObjList.iterateFromSelect(Item.class, "SELECT * FROM ITEM_TEST WHERE id < ? ORDER BY id", 3)) {
+         assertTrue(iterator.hasNext());
+         assertTrue(iterator.hasNext());
+         assertEquals(1, iterator.next().id);
+         assertEquals("two", iterator.next().name);
+         assertFalse(iterator.hasNext());
+      }
+   }
+
+   @Test(expected = NoSuchElementException.class)
+   public void iteratorExhausted() {
+      try (Q2ObjIterator<Item> iterator = Q2ObjList.iterateFromSelect(Item.class, "SELECT * FROM ITEM_TEST WHERE id > 3")) {
+         iterator.next();
+      }
+   }
+
+   @Test
+   public void closingKeepsProvidedConnectionOpen() throws SQLException {
+      try (Connection con = dataSource.getConnection()) {
+         try (Stream<Item> stream = Q2ObjList.streamFromClause(con, Item.class, "id = ?", 1)) {
+            assertEquals("one", stream.findFirst().get().name);
+         }
+         assertFalse(con.isClosed());
+         try (Q2ObjIterator<Item> iterator = Q2ObjList.iterateFromSelect(con, Item.class, "SELECT * FROM ITEM_TEST")) {
+            assertTrue(iterator.hasNext());
+         }
+         assertFalse(con.isClosed());
+      }
+   }
+}
@@ -220,6 +220,9 @@ public class Q2ObjTest extends GeneralTestConfigurator {
          IncludeColumns obj2 = Q2Obj.fromClause(IncludeColumns.class, "id=1");
          assertNull(obj2.note2);
 
+         // Case insensitive as with updateExcludeColumns()
+         Q2Obj.updateIncludeColumns(obj, "NOTE2");
+         assertEquals("note2", Q2Obj.fromClause(IncludeColumns.class, "id=1").note2);
       }
       finally {
          Q2Sql.executeUpdate("drop table IncludeColumns");
@@ -0,0 +1,180 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+import org.sansorm.testutils.TxMode;
+import org.sansorm.testutils.TxModeTestConfigurator;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class QueryCacheTest extends TxModeTestConfigurator {
+
+   @Table(name = "QUERY_CACHE_TEST")
+   public static class City {
+      @Id
+      int id;
+      @Column(name = "name")
+      String name;
+   }
+
+   @Table(name = "query_cache_test")
+   public static class CityName {
+      @Id
+      int id;
+      @Column(name = "name")
+      String name;
+   }
+
+   @Before
+   public void setUp() throws Exception {
+      super.setUp();
+      Q2Sql.executeUpdate("CREATE TABLE QUERY_CACHE_TEST (id INTEGER NOT NULL PRIMARY KEY, name VARCHAR(128))");
+      Q2Sql.executeUpdate("INSERT INTO QUERY_CACHE_TEST VALUES (1, 'Berlin'), (2, 'Paris')");
+      q2o.setQueryCache(City.class, 10, 0);
+   }
+
+   @After
+   public void tearDown() throws Exception {
+      Q2Sql.executeUpdate("DROP TABLE QUERY_CACHE_TEST");
+      super.tearDown();
+   }
+
+   @Test
+   public void resultsAreCachedBySqlAndParameters() {
+      List<City> cities = Q2ObjList.fromClause(City.class, "id <= ?", 2);
+      assertEquals(2, cities.size());
+      Q2Sql.executeUpdate("UPDATE QUERY_CACHE_TEST SET name = 'Paname' WHERE id = 2");
+
+      List<City> cached = Q2ObjList.fromClause(City.class, "id <= ?", 2L);
+      assertEquals("Paris", cached.get(1).name);
+      assertNotSame(cities.get(1), cached.get(1));
+      assertEquals("Paname", Q2ObjList.fromClause(City.class, "id <= ?", 3).get(1).name);
+      assertEquals("Paname", Q2ObjList.fromRawClause(City.class, "WHERE id <= ? ORDER BY id", 2).get(1).name);
+      assertEquals("Paname", Q2ObjList.fromClause(CityName.class, "id <= ?", 2).get(1).name);
+
+      q2o.clearEntityCache(City.class);
+      assertEquals("Paname", Q2ObjList.fromClause(City.class, "id <= ?", 2).get(1).name);
+   }
+
+   @Test
+   public void writesToTheSameTableInvalidate() {
+      Q2ObjList.fromClause(City.class, null);
+      CityName cityName = Q2Obj.byId(CityName.class, 2);
+      cityName.name = "Paname";
+      Q2Obj.update(cityName);
+      assertEquals("Paname", Q2ObjList.fromClause(City.class, null).get(1).name);
+
+      Q2Obj.deleteByWhereClause(CityName.class, "id = ?", 2);
+      assertEquals(1, Q2ObjList.fromClause(City.class, null).size());
+   }
+
+   @Test
+   public void entriesExpire() throws InterruptedException {
+      q2o.setQueryCache(City.class, 10, 1);
+      Q2ObjList.fromClause(City.class, null);
+      Q2Sql.executeUpdate("UPDATE QUERY_CACHE_TEST SET name = 'Paname' WHERE id = 2");
+      Thread.sleep(5);
+      assertEquals("Paname", Q2ObjList.fromClause(City.class, null).get(1).name);
+   }
+
+   @Test
+   public void largeResultsAreNotCached() {
+      for (int i = 3; i <= EntityCache.MAX_QUERY_ROWS + 1; i++) {
+         Q2Sql.executeUpdate("INSERT INTO QUERY_CACHE_TEST VALUES (?, ?)", i, "City " + i);
+      }
+      assertEquals(EntityCache.MAX_QUERY_ROWS + 1, Q2ObjList.fromClause(City.class, null).size());
+      assertEquals(0, cacheSize());
+      assertEquals(1, Q2ObjList.fromClause(City.class, "id = ?", 1).size());
+      assertEquals(1, cacheSize());
+   }
+
+   @Test
+   public void uncommittedChangesAreNotCached() {
+      assumeTrue(hasTransactions());
+      Q2ObjList.fromClause(City.class, null);
+      beginTransaction();
+      try {
+         CityName cityName = Q2Obj.byId(CityName.class, 2);
+         cityName.name = "Paname";
+         Q2Obj.update(cityName);
+         assertEquals("Paname", Q2ObjList.fromClause(City.class, null).get(1).name);
+         assertEquals(1, Q2ObjList.fromClause(City.class, "id = ?", 1).size());
+         assertEquals(0, cacheSize());
+      }
+      finally {
+         rollback();
+      }
+      assertEquals("Paris", Q2ObjList.fromClause(City.class, null).get(1).name);
+      assertEquals(1, cacheSize());
+   }
+
+   @Test
+   public void committedChangesReplaceResultsCachedMeanwhile() throws Exception {
+      assumeTrue(hasTransactions());
+      beginTransaction();
+      try {
+         CityName cityName = Q2Obj.byId(CityName.class, 2);
+         cityName.name = "Paname";
+         Q2Obj.update(cityName);
+         assertEquals("Paris", readConcurrently(() -> Q2ObjList.fromClause(City.class, null).get(1).name));
+         assertEquals(1, cacheSize());
+      }
+      catch (Exception | Error e) {
+         rollback();
+         throw e;
+      }
+      commit();
+      assertEquals("Paname", Q2ObjList.fromClause(City.class, null).get(1).name);
+   }
+
+   @Test
+   public void readsOfSpringTransactionsAreNotCached() {
+      assumeTrue(txMode == TxMode.springTx);
+      Q2ObjList.fromClause(City.class, null);
+      beginTransaction();
+      try {
+         Q2Sql.executeUpdate("UPDATE QUERY_CACHE_TEST SET name = 'Paname' WHERE id = 2");
+         assertEquals("Paname", Q2ObjList.fromClause(City.class, null).get(1).name);
+         assertEquals(1, Q2ObjList.fromClause(City.class, "id = ?", 1).size());
+         assertEquals(1, cacheSize());
+      }
+      finally {
+         rollback();
+      }
+      assertEquals("Paris", Q2ObjList.fromClause(City.class, null).get(1).name);
+   }
+
+   @Test
+   public void connectionsNotInAutoCommitModeBypassTheCache() throws SQLException {
+      Q2ObjList.fromClause(City.class, null);
+      try (Connection connection = DataSources.getH2ImMemoryDataSource(true).getConnection()) {
+         connection.setAutoCommit(false);
+         Q2Sql.executeUpdate(connection, "UPDATE QUERY_CACHE_TEST SET name = 'Paname' WHERE id = 2");
+         assertEquals("Paname", Q2ObjList.fromClause(connection, City.class, null).get(1).name);
+         assertEquals(1, Q2ObjList.fromClause(connection, City.class, "id = ?", 1).size());
+         assertEquals(1, cacheSize());
+         connection.rollback();
+      }
+      assertEquals("Paris", Q2ObjList.fromClause(City.class, null).get(1).name);
+   }
+
+   private static int cacheSize() {
+      return q2o.getCacheStatistics().stream()
+         .filter(s -> s.getName().equals("QueryCache." + City.class.getName()))
+         .findFirst().map(CacheStatistics::getSize).orElse(0);
+   }
+}
@@ -0,0 +1,85 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.entities.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+import org.sansorm.testutils.TableCreatorH2;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class RowMappingPlanTest {
+
+   private DataSource dataSource;
+
+   @Before
+   public void setUp() {
+      dataSource = DataSources.getH2ImMemoryDataSource(true);
+      q2o.initializeTxNone(dataSource);
+      TableCreatorH2.createItemTable();
+      Q2Sql.executeUpdate("INSERT INTO ITEM_TEST VALUES (1, 'one'), (2, 'two')");
+   }
+
+   @After
+   public void tearDown() {
+      TableCreatorH2.dropItemTable();
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void mapRowsWithPlan() {
+      List<Item> list = Q2ObjList.fromClause(Item.class, "id > ? ORDER BY id", 0);
+      assertEquals(2, list.size());
+      assertEquals("one", list.get(0).name);
+      assertEquals(2, list.get(1).id);
+
+      // Second run with cached plan.
+      list = Q2ObjList.fromClause(Item.class, "id > ? ORDER BY id", 0);
+      assertEquals(2, list.size());
+      assertEquals("two", list.get(1).name);
+   }
+
+   @Test
+   public void planIsCachedBySqlAndClass() throws SQLException {
+      String sql = "SELECT id, name FROM ITEM_TEST";
+      Introspected introspected = Introspected.getInstance(Item.class);
+      try (Connection con = dataSource.getConnection();
+           PreparedStatement stmt = con.prepareStatement(sql);
+           ResultSet rs = stmt.executeQuery()) {
+         RowMappingPlan plan = RowMappingPlan.of(sql, rs.getMetaData(), introspected, Collections.emptySet());
+         assertSame(plan, RowMappingPlan.of(sql, rs.getMetaData(), introspected, Collections.emptySet()));
+         assertNotSame(plan, RowMappingPlan.of(null, rs.getMetaData(), introspected, Collections.emptySet()));
+         assertEquals(2, plan.columnCount);
+         assertEquals("name", plan.fcInfos[2].getName());
+         assertTrue(plan.isOfTargetTable[1]);
+      }
+   }
+
+   @Test
+   public void ignoredColumnsAreNotCached() throws SQLException {
+      String sql = "SELECT id, name FROM ITEM_TEST";
+      Introspected introspected = Introspected.getInstance(Item.class);
+      try (Connection con = dataSource.getConnection();
+           PreparedStatement stmt = con.prepareStatement(sql);
+           ResultSet rs = stmt.executeQuery()) {
+         HashSet<String> ignored = new HashSet<>(Collections.singletonList("NAME"));
+         RowMappingPlan plan = RowMappingPlan.of(sql, rs.getMetaData(), introspected, ignored);
+         assertTrue(plan.isIgnored[2]);
+         assertFalse(RowMappingPlan.of(sql, rs.getMetaData(), introspected, Collections.emptySet()).isIgnored[2]);
+      }
+   }
+}
@@ -0,0 +1,99 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.entities.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+import org.sansorm.testutils.TableCreatorH2;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class SelectSqlTest {
+
+   @Table(name = "ITEM_TEST")
+   public static class CountingEntity {
+      static int instances;
+      @Id
+      long id;
+      @Column(name = "name")
+      String name;
+
+      private CountingEntity() {
+         instances++;
+      }
+   }
+
+   @Table(name = "SELECT_SQL_COMPOSITE_TEST")
+   public static class CompositeKeyEntity {
+      @Id
+      int id1;
+      @Id
+      int id2;
+      @Column(name = "note")
+      String note;
+   }
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      TableCreatorH2.createItemTable();
+      Q2Sql.executeUpdate("CREATE TABLE SELECT_SQL_COMPOSITE_TEST (id1 INTEGER NOT NULL, id2 INTEGER NOT NULL, note VARCHAR(128), PRIMARY KEY (id1, id2))");
+      Q2Sql.executeUpdate("INSERT INTO ITEM_TEST VALUES (1, 'one')");
+      Q2Sql.executeUpdate("INSERT INTO SELECT_SQL_COMPOSITE_TEST VALUES (1, 2, 'one two')");
+   }
+
+   @After
+   public void tearDown() {
+      TableCreatorH2.dropItemTable();
+      Q2Sql.executeUpdate("DROP TABLE SELECT_SQL_COMPOSITE_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void selectByIdIsCachedPerClass() {
+      String sql = OrmReader.generateSelectById(Item.class);
+      assertEquals("SELECT ITEM_TEST.id,ITEM_TEST.name FROM ITEM_TEST ITEM_TEST WHERE  id=?", sql);
+      assertSame(sql, OrmReader.generateSelectById(Item.class));
+      assertTrue(OrmReader.generateSelectById(CompositeKeyEntity.class).endsWith("WHERE  id1=? AND id2=?"));
+   }
+
+   @Test
+   public void clauseCacheDistinguishesAddLackingWhere() {
+      String withWhere = OrmReader.generateSelectFromWhereClause(Item.class, "id = 1", true);
+      String raw = OrmReader.generateSelectFromWhereClause(Item.class, "id = 1", false);
+      assertTrue(withWhere.endsWith("WHERE  id = 1"));
+      assertTrue(raw.endsWith("ITEM_TEST id = 1"));
+      assertSame(withWhere, OrmReader.generateSelectFromWhereClause(Item.class, "id = 1", true));
+      assertTrue(OrmReader.generateSelectFromWhereClause(Item.class, null, true).endsWith("FROM ITEM_TEST ITEM_TEST"));
+   }
+
+   @Test
+   public void byId() {
+      assertEquals("one", Q2Obj.byId(Item.class, 1).name);
+      assertNull(Q2Obj.byId(Item.class, 2));
+
+      CompositeKeyEntity composite = Q2Obj.byId(CompositeKeyEntity.class, 1, 2);
+      assertEquals("one two", composite.note);
+      composite.note = null;
+      assertEquals("one two", Q2Obj.refresh(composite).note);
+   }
+
+   @Test
+   public void byIdInstantiatesFoundRowsOnly() {
+      CountingEntity.instances = 0;
+      assertNull(Q2Obj.byId(CountingEntity.class, 2L));
+      assertEquals(0, CountingEntity.instances);
+      // long id bound to INTEGER column
+      assertEquals("one", Q2Obj.byId(CountingEntity.class, 1L).name);
+      assertEquals(1, CountingEntity.instances);
+   }
+}
@@ -0,0 +1,97 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.entities.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+import org.sansorm.testutils.TableCreatorH2;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class SlowQueryLogTest {
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      TableCreatorH2.createItemTable();
+   }
+
+   @After
+   public void tearDown() {
+      TableCreatorH2.dropItemTable();
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void operationsAboveThresholdAreRecorded() {
+      q2o.setSlowQueryLog(0, 10, false);
+      Q2Obj.insert(new Item(1, "secret"));
+      Q2Obj.insert(new Item(2, "other"));
+      List<Item> items = Q2ObjList.fromClause(Item.class, "name = ?", "secret");
+      assertEquals(1, items.size());
+
+      List<SlowQuery> slowQueries = q2o.getSlowQueries();
+      assertEquals(3, slowQueries.size());
+      SlowQuery fromClause = slowQueries.get(0);
+      assertEquals(Q2oMetrics.FROM_CLAUSE, fromClause.getOperation());
+      assertSame(Item.class, fromClause.getEntityClass());
+      assertEquals(OrmReader.generateSelectFromWhereClause(Item.class, "name = ?", true), fromClause.getSql());
+      assertEquals(Collections.singletonList("secret"), fromClause.getParameters());
+      assertEquals(1, fromClause.getRows());
+      assertTrue(fromClause.getExecutionNanos() > 0);
+      assertTrue(fromClause.getMappingNanos() > 0);
+
+      SlowQuery insert = slowQueries.get(1);
+      assertEquals(Q2oMetrics.INSERT, insert.getOperation());
+      assertEquals(Arrays.asList("2", "other"), insert.getParameters());
+      assertEquals(0, insert.getMappingNanos());
+
+      q2o.clearSlowQueries();
+      assertTrue(q2o.getSlowQueries().isEmpty());
+   }
+
+   @Test
+   public void parametersAreRedacted() {
+      q2o.setSlowQueryLog(0, 10, true);
+      Q2Obj.insert(new Item(1, "secret"));
+      Item item = Q2Obj.byId(Item.class, 1);
+      item.name = null;
+      Q2Obj.update(item);
+      List<SlowQuery> slowQueries = q2o.getSlowQueries();
+      assertEquals(Arrays.asList("<Integer>", "null", "<Integer>"), slowQueries.get(0).getParameters());
+      assertEquals(Collections.singletonList("<Integer>"), slowQueries.get(1).getParameters());
+      assertEquals(Arrays.asList("<Integer>", "<String>"), slowQueries.get(2).getParameters());
+      assertFalse(slowQueries.toString().contains("secret"));
+   }
+
+   @Test
+   public void bufferKeepsMostRecent() {
+      q2o.setSlowQueryLog(0, 2, false);
+      for (int i = 1; i <= 5; i++) {
+         Q2Obj.insert(new Item(i, "item" + i));
+      }
+      List<SlowQuery> slowQueries = q2o.getSlowQueries();
+      assertEquals(2, slowQueries.size());
+      assertEquals("5", slowQueries.get(0).getParameters().get(0));
+      assertEquals("4", slowQueries.get(1).getParameters().get(0));
+   }
+
+   @Test
+   public void fastOperationsAreNotRecorded() {
+      q2o.setSlowQueryLog(60_000, 10, true);
+      Q2Obj.insert(new Item(1, "one"));
+      assertTrue(q2o.getSlowQueries().isEmpty());
+      q2o.setSlowQueryLog(0, 0, true);
+      Q2Obj.insert(new Item(2, "two"));
+      assertTrue(q2o.getSlowQueries().isEmpty());
+   }
+}
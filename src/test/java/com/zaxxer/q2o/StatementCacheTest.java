@@ -0,0 +1,129 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+
+import javax.persistence.Column;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class StatementCacheTest {
+
+   @Table(name = "STMT_CACHE_TEST")
+   public static class StmtCacheTest {
+      @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+      Integer id;
+      @Column(name = "note")
+      String note;
+
+      StmtCacheTest() {
+      }
+
+      StmtCacheTest(String note) {
+         this.note = note;
+      }
+   }
+
+   private DataSource dataSource;
+
+   @Before
+   public void setUp() {
+      dataSource = q2o.initializeTxSimple(DataSources.getH2ImMemoryDataSource(true));
+      Q2Sql.executeUpdate("CREATE TABLE STMT_CACHE_TEST (id INTEGER NOT NULL IDENTITY PRIMARY KEY, note VARCHAR(128))");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP TABLE STMT_CACHE_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void disabledByDefault() {
+      SqlClosure.sqlExecute(c -> {
+         assertNull(StatementCache.of(c));
+         return null;
+      });
+   }
+
+   @Test
+   public void statementsAreReusedOnConnection() {
+      q2o.setStatementCacheSize(10);
+      SqlClosure.sqlExecute(c -> {
+         StatementCache cache = StatementCache.of(c);
+         assertNotNull(cache);
+         StmtCacheTest one = Q2Obj.insert(c, new StmtCacheTest("one"));
+         StmtCacheTest two = Q2Obj.insert(c, new StmtCacheTest("two"));
+         assertEquals(1, cache.size());
+         assertNotEquals(one.id, two.id);
+         assertEquals("one", Q2Obj.byId(c, StmtCacheTest.class, one.id).note);
+         assertEquals("two", Q2Obj.byId(c, StmtCacheTest.class, two.id).note);
+         assertEquals(2, cache.size());
+
+         PreparedStatement stmt = OrmBase.prepareStatement(c, "SELECT note FROM STMT_CACHE_TEST");
+         stmt.close();
+         assertTrue(stmt.isClosed());
+         assertSame(stmt, OrmBase.prepareStatement(c, "SELECT note FROM STMT_CACHE_TEST"));
+         // In use, so not shared.
+         PreparedStatement other = OrmBase.prepareStatement(c, "SELECT note FROM STMT_CACHE_TEST");
+         assertNotSame(stmt, other);
+         other.close();
+         stmt.close();
+         return null;
+      });
+   }
+
+   @Test
+   public void statementsAreReusedWithinTransaction() {
+      q2o.setStatementCacheSize(10);
+      SqlClosure.sqlExecute(c -> {
+         // Joins the transaction of c.
+         for (int i = 0; i < 5; i++) {
+            Q2Obj.insert(new StmtCacheTest("note" + i));
+         }
+         assertEquals(1, StatementCache.of(c).size());
+         return null;
+      });
+      assertEquals(5, Q2Obj.countFromClause(StmtCacheTest.class, null));
+   }
+
+   @Test
+   public void leastRecentlyUsedIsEvicted() {
+      q2o.setStatementCacheSize(2);
+      SqlClosure.sqlExecute(c -> {
+         PreparedStatement first = OrmBase.prepareStatement(c, "SELECT 1");
+         first.close();
+         OrmBase.prepareStatement(c, "SELECT 2").close();
+         OrmBase.prepareStatement(c, "SELECT 3").close();
+         assertEquals(2, StatementCache.of(c).size());
+         assertTrue(first.unwrap(PreparedStatement.class).isClosed());
+         assertNotSame(first, OrmBase.prepareStatement(c, "SELECT 1"));
+         return null;
+      });
+   }
+
+   @Test
+   public void closingConnectionClosesStatements() throws Exception {
+      q2o.setStatementCacheSize(10);
+      PreparedStatement stmt;
+      try (Connection c = dataSource.getConnection()) {
+         stmt = OrmBase.prepareStatement(c, "SELECT 1");
+         stmt.close();
+         assertFalse(stmt.unwrap(PreparedStatement.class).isClosed());
+      }
+      assertTrue(stmt.unwrap(PreparedStatement.class).isClosed());
+   }
+}
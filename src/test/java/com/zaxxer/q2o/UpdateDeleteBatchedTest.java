@@ -0,0 +1,107 @@
+package com.zaxxer.q2o;
+
+import com.zaxxer.q2o.entities.Item;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sansorm.DataSources;
+import org.sansorm.testutils.TableCreatorH2;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+public class UpdateDeleteBatchedTest {
+
+   @Table(name = "BATCHED_COMPOSITE_TEST")
+   public static class BatchedCompositeTest {
+      @Id
+      int id1;
+      @Id
+      String id2;
+      @Column(name = "note")
+      String note;
+   }
+
+   @Before
+   public void setUp() {
+      q2o.initializeTxNone(DataSources.getH2ImMemoryDataSource(true));
+      TableCreatorH2.createItemTable();
+      Q2Sql.executeUpdate("CREATE TABLE BATCHED_COMPOSITE_TEST (id1 INTEGER NOT NULL, id2 VARCHAR(10) NOT NULL, note VARCHAR(128), PRIMARY KEY (id1, id2))");
+   }
+
+   @After
+   public void tearDown() {
+      TableCreatorH2.dropItemTable();
+      Q2Sql.executeUpdate("DROP TABLE BATCHED_COMPOSITE_TEST");
+      q2o.deinitialize();
+   }
+
+   @Test
+   public void updateBatched() {
+      List<Item> rows = rows(5);
+      Q2ObjList.insertBatched(rows);
+      rows.forEach(row -> row.name = "updated" + row.id);
+      Q2ObjList.updateBatched(rows);
+
+      List<Item> list = Q2ObjList.fromRawClause(Item.class, "ORDER BY id");
+      assertEquals("updated0", list.get(0).name);
+      assertEquals("updated4", list.get(4).name);
+   }
+
+   @Test
+   public void deleteBatched() {
+      List<Item> rows = rows(600);
+      Q2ObjList.insertBatched(rows);
+      // 256 + 256 + 88 padded to 128
+      assertEquals(599, Q2ObjList.deleteBatched(Item.class, rows.subList(1, 600)));
+      List<Item> list = Q2ObjList.fromClause(Item.class, null);
+      assertEquals(1, list.size());
+      assertEquals(0, list.get(0).id);
+   }
+
+   @Test
+   public void deleteWithPadding() {
+      List<Item> rows = rows(5);
+      Q2ObjList.insertBatched(rows);
+      assertEquals(3, Q2ObjList.delete(rows.subList(0, 3)));
+      assertEquals(2, Q2Obj.countFromClause(Item.class, null));
+   }
+
+   @Test
+   public void compositeKey() {
+      List<BatchedCompositeTest> rows = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+         BatchedCompositeTest row = new BatchedCompositeTest();
+         row.id1 = i;
+         row.id2 = "k" + i;
+         row.note = "note" + i;
+         rows.add(row);
+      }
+      Q2ObjList.insertBatched(rows);
+      rows.get(1).note = "updated";
+      Q2ObjList.updateBatched(rows);
+      assertEquals("updated", Q2Obj.byId(BatchedCompositeTest.class, 1, "k1").note);
+
+      assertEquals(2, Q2ObjList.deleteBatched(BatchedCompositeTest.class, rows.subList(0, 2)));
+      List<BatchedCompositeTest> list = Q2ObjList.fromClause(BatchedCompositeTest.class, null);
+      assertEquals(1, list.size());
+      assertEquals("k2", list.get(0).id2);
+   }
+
+   private static List<Item> rows(int count) {
+      List<Item> rows = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+         rows.add(new Item(i, "note" + i));
+      }
+      return rows;
+   }
+}
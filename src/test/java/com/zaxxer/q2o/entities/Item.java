@@ -0,0 +1,27 @@
+package com.zaxxer.q2o.entities;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Minimal entity shared by tests not depending on a particular mapping. See {@link org.sansorm.testutils.TableCreatorH2#createItemTable()}.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+@Table(name = "ITEM_TEST")
+public class Item {
+   @Id
+   public int id;
+   @Column(name = "name")
+   public String name;
+
+   public Item() {
+   }
+
+   public Item(int id, String name) {
+      this.id = id;
+      this.name = name;
+   }
+}
@@ -55,4 +55,17 @@ public class TableCreatorH2 {
       Q2Sql.executeUpdate("truncate table RIGHT1_TABLE");
       Q2Sql.executeUpdate("truncate table FAR_RIGHT1_TABLE");
    }
+
+   /**
+    * For {@link com.zaxxer.q2o.entities.Item}.
+    */
+   public static void createItemTable()
+   {
+      Q2Sql.executeUpdate("CREATE TABLE ITEM_TEST (id INTEGER NOT NULL PRIMARY KEY, name VARCHAR(128))");
+   }
+
+   public static void dropItemTable()
+   {
+      Q2Sql.executeUpdate("DROP TABLE IF EXISTS ITEM_TEST");
+   }
 }
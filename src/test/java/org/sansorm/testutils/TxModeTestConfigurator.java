@@ -0,0 +1,123 @@
+package org.sansorm.testutils;
+
+import com.zaxxer.q2o.TransactionHelper;
+import com.zaxxer.q2o.q2o;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.sansorm.DataSources;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the tests of a subclass with each {@link TxMode} on an H2 in-memory database. For tests of behavior depending on how q2o takes part in transactions. Unlike {@link GeneralTestConfigurator} it does not need a database server.
+ *
+ * @author Holger Thurow (thurow.h@gmail.com)
+ * @since 17.10.26
+ */
+@RunWith(Parameterized.class)
+public class TxModeTestConfigurator {
+
+   @Parameterized.Parameters(name = "txMode={0}")
+   public static Collection<Object[]> data() {
+      return Arrays.asList(new Object[][] {
+         {TxMode.txNone}, {TxMode.txSimple}, {TxMode.springTx}
+      });
+   }
+
+   @Parameterized.Parameter(0)
+   public TxMode txMode;
+
+   /**
+    * The data source q2o was initialized with. With {@link TxMode#txSimple} the transaction aware one.
+    */
+   public DataSource dataSource;
+
+   private DataSourceTransactionManager springTxManager;
+   private TransactionStatus springTx;
+
+   @Before
+   public void setUp() throws Exception {
+      final DataSource h2 = DataSources.getH2ImMemoryDataSource(true);
+      switch (txMode) {
+         case txNone:
+            q2o.initializeTxNone(h2);
+            dataSource = h2;
+            break;
+         case txSimple:
+            dataSource = q2o.initializeTxSimple(h2);
+            break;
+         case springTx:
+            q2o.initializeWithSpringTxSupport(h2);
+            springTxManager = new DataSourceTransactionManager(h2);
+            dataSource = h2;
+            break;
+      }
+   }
+
+   @After
+   public void tearDown() throws Exception {
+      q2o.deinitialize();
+   }
+
+   /**
+    * Begins a transaction of the {@link #txMode}, in which q2o's operations of the current thread take part. Not with {@link TxMode#txNone}, which has no transactions.
+    */
+   public void beginTransaction() {
+      switch (txMode) {
+         case txNone:
+            throw new IllegalStateException("txNone has no transactions");
+         case txSimple:
+            TransactionHelper.beginOrJoinTransaction();
+            break;
+         case springTx:
+            springTx = springTxManager.getTransaction(new DefaultTransactionDefinition());
+            break;
+      }
+   }
+
+   public void commit() {
+      if (txMode == TxMode.springTx) {
+         springTxManager.commit(springTx);
+      }
+      else {
+         TransactionHelper.commit();
+      }
+   }
+
+   public void rollback() {
+      if (txMode == TxMode.springTx) {
+         springTxManager.rollback(springTx);
+      }
+      else {
+         TransactionHelper.rollback();
+      }
+   }
+
+   public boolean hasTransactions() {
+      return txMode != TxMode.txNone;
+   }
+
+   /**
+    * Executes read in another thread, outside of the transaction of the current one.
+    */
+   public static <T> T readConcurrently(Callable<T> read) throws Exception {
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+         return executor.submit(read).get(10, TimeUnit.SECONDS);
+      }
+      finally {
+         executor.shutdown();
+      }
+   }
+}